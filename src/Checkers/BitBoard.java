@@ -0,0 +1,134 @@
+package Checkers;
+
+/***
+ * BitBoard class holds the constants and helper methods used to represent a checkers position as 32-bit masks.
+ * Only the 32 dark squares of the board can hold a piece, so each of them is given one bit of an int.
+ * The squares are numbered in the same row-major order in which the rest of the program scans the board:
+ *              square = row*4 + column/2
+ * so that row 0 (the row on which White pawns are promoted) holds squares 0 to 3 and row 7 holds squares 28 to 31.
+ * A position is then described by three masks: the White pieces, the Black pieces and the kings of either alliance.
+ * Neighbouring squares of a whole mask of squares can be found with a couple of shifts, which is what makes the
+ * move generation in CheckersBoard fast.
+ */
+public final class BitBoard {
+    public static final int UP_LEFT = 0;        //Direction towards row 0 and column 0
+    public static final int UP_RIGHT = 1;       //Direction towards row 0 and column 7
+    public static final int DOWN_LEFT = 2;      //Direction towards row 7 and column 0
+    public static final int DOWN_RIGHT = 3;     //Direction towards row 7 and column 7
+
+    public static final int EVEN_ROWS = 0x0F0F0F0F;     //Squares of the rows 0, 2, 4 and 6
+    public static final int ODD_ROWS = 0xF0F0F0F0;      //Squares of the rows 1, 3, 5 and 7
+    public static final int LEFT_EDGE = 0x10101010;     //Squares of column 0
+    public static final int RIGHT_EDGE = 0x08080808;    //Squares of column 7
+    public static final int WHITE_KING_ROW = 0x0000000F;    //Squares of row 0, where White pawns are upgraded to kings
+    public static final int BLACK_KING_ROW = 0xF0000000;    //Squares of row 7, where Black pawns are upgraded to kings
+
+    public static final int INITIAL_BLACK_PIECES = 0x00000FFF;  //Squares of the rows 0, 1 and 2
+    public static final int INITIAL_WHITE_PIECES = 0xFFF00000;  //Squares of the rows 5, 6 and 7
+
+    //neighbour[direction][square] holds the square next to the given square in the given direction, or -1 if it is off the board
+    private static final int[][] neighbour = new int[4][32];
+
+    static {
+        for (int square = 0; square < 32; square++) {
+            int row = rowOf(square);
+            int column = columnOf(square);
+            neighbour[UP_LEFT][square] = squareOrNone(row - 1, column - 1);
+            neighbour[UP_RIGHT][square] = squareOrNone(row - 1, column + 1);
+            neighbour[DOWN_LEFT][square] = squareOrNone(row + 1, column - 1);
+            neighbour[DOWN_RIGHT][square] = squareOrNone(row + 1, column + 1);
+        }
+    }
+
+    private BitBoard(){
+
+    }
+
+    /***
+     * Finds the square number of a dark square on the board
+     * @param row The row of the square
+     * @param column The column of the square
+     * @return The square number from 0 to 31
+     */
+    public static int squareOf(int row, int column){
+        return row*4 + column/2;
+    }
+
+    /***
+     * @param square The square number from 0 to 31
+     * @return The row of the given square
+     */
+    public static int rowOf(int square){
+        return square >> 2;
+    }
+
+    /***
+     * @param square The square number from 0 to 31
+     * @return The column of the given square, dark squares are on odd columns in even rows and on even columns in odd rows
+     */
+    public static int columnOf(int square){
+        return 2*(square & 3) + 1 - ((square >> 2) & 1);
+    }
+
+    /***
+     * @param row The row of a square
+     * @param column The column of a square
+     * @return True if pieces can be placed on the square, i.e. the sum of its row and column is odd
+     */
+    public static boolean isPlayable(int row, int column){
+        return (row + column) % 2 != 0;
+    }
+
+    /***
+     * @param direction One of UP_LEFT, UP_RIGHT, DOWN_LEFT and DOWN_RIGHT
+     * @param square The square number from 0 to 31
+     * @return The square next to the given square in the given direction, or -1 if there is no such square
+     */
+    public static int neighbour(int direction, int square){
+        return neighbour[direction][square];
+    }
+
+    /***
+     * Finds all the squares whose neighbour in the given direction is one of the given target squares.
+     * Moving one step up is a shift by 4 and either 3 or 5 depending on the parity of the row, moving one step down is the reverse,
+     * squares on the edge columns are masked out where the shift would wrap around to the other side of the board.
+     * @param direction One of UP_LEFT, UP_RIGHT, DOWN_LEFT and DOWN_RIGHT
+     * @param targets Mask of the target squares
+     * @return Mask of the squares from which one step in the given direction lands on a target square
+     */
+    public static int sources(int direction, int targets){
+        switch (direction){
+            case UP_LEFT:
+                return ((targets << 4) & EVEN_ROWS) | ((targets << 5) & ODD_ROWS & ~LEFT_EDGE);
+            case UP_RIGHT:
+                return ((targets << 3) & EVEN_ROWS & ~RIGHT_EDGE) | ((targets << 4) & ODD_ROWS);
+            case DOWN_LEFT:
+                return ((targets >>> 4) & EVEN_ROWS) | ((targets >>> 3) & ODD_ROWS & ~LEFT_EDGE);
+            default:
+                return ((targets >>> 5) & EVEN_ROWS & ~RIGHT_EDGE) | ((targets >>> 4) & ODD_ROWS);
+        }
+    }
+
+    /***
+     * @param alliance The alliance whose pawns are moving
+     * @param direction One of UP_LEFT, UP_RIGHT, DOWN_LEFT and DOWN_RIGHT
+     * @return True if pawns of the given alliance may move in the given direction, White pawns move up and Black pawns move down
+     */
+    public static boolean isForward(Alliance alliance, int direction){
+        return (alliance == Alliance.WHITE) == (direction == UP_LEFT || direction == UP_RIGHT);
+    }
+
+    /***
+     * @param alliance The alliance whose pawns are to be upgraded
+     * @return Mask of the row on which pawns of the given alliance are upgraded to kings
+     */
+    public static int kingRow(Alliance alliance){
+        return alliance == Alliance.WHITE ? WHITE_KING_ROW : BLACK_KING_ROW;
+    }
+
+    private static int squareOrNone(int row, int column){
+        if(row < 0 || row > 7 || column < 0 || column > 7)
+            return -1;
+        return squareOf(row, column);
+    }
+}
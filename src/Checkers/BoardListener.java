@@ -0,0 +1,26 @@
+package Checkers;
+
+/***
+ * BoardListener is the interface of an object kept in step with the board position of a CheckersBoard, such as the incremental
+ * state of an Evaluator. A CheckersBoard calls its listener after each change of its position.
+ * A listener belongs to one CheckersBoard, it is not copied by clone().
+ */
+public interface BoardListener {
+    /***
+     * Called after a move has been made with makeMove()
+     * @param checkersBoard The board position after the move
+     */
+    public abstract void moveMade(CheckersBoard checkersBoard);
+
+    /***
+     * Called after a move has been taken back with unmakeMove()
+     * @param checkersBoard The board position after the move has been taken back
+     */
+    public abstract void moveUnmade(CheckersBoard checkersBoard);
+
+    /***
+     * Called when the listener is set on a CheckersBoard and after the position has been set up directly, as by setInitialBoardPosition()
+     * @param checkersBoard The board position which has been set
+     */
+    public abstract void positionSet(CheckersBoard checkersBoard);
+}
@@ -1,19 +1,34 @@
 package Checkers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /***
  * CheckersBoard class represents a board position in checkers.
  * It includes the position of pieces on the board and the alliance that is to move.
+ * The pieces are stored as 32-bit masks over the dark squares of the board, see the BitBoard class for the numbering of the squares.
+ * The Piece matrix view of the board is still available through getBoard() and getPieceAt() for the code that works row by column.
  * Member Variables:
- *              board - An 8x8 array of Piece objects representing the positioning of pieces on the board
+ *              whitePieces - Mask of the squares occupied by White pawns and kings
+ *              blackPieces - Mask of the squares occupied by Black pawns and kings
+ *              kings - Mask of the squares occupied by kings of either alliance
  *              allianceToMove - The Alliance that is to make the next move in the current board position
+ *              zobristKey - The 64-bit Zobrist key identifying the position, see the Zobrist class
+ *              undoStack - The piece masks before each move made by makeMove(), so that unmakeMove() can take the moves back
+ *              boardListener - The BoardListener called after each change of the position, null if there is none
  */
 public class CheckersBoard {
-    private Piece[][] board = new Piece[8][8];
+    private int whitePieces;
+    private int blackPieces;
+    private int kings;
     private Alliance allianceToMove;
     private int plyCount = 0;
+    private long zobristKey;        //Zobrist key of the position, updated incrementally as the pieces and the alliance to move change
+    private int[] undoStack;        //Piece masks before each move made with makeMove(), three ints for each move, used by unmakeMove()
+    private long[] undoKeyStack;    //Zobrist keys before each move made with makeMove()
+    private int undoCount;          //Number of moves that can be unmade
+    private BoardListener boardListener;
 
     /***
      * Default constructor
@@ -23,27 +38,45 @@ public class CheckersBoard {
     }
 
     @Override
-    //Return a deep copy duplicate of the calling object
+    //Return a deep copy duplicate of the calling object, the duplicate starts with no moves to unmake
     public CheckersBoard clone() {
         //Create a new object of CheckersBoard class
         CheckersBoard copy = new CheckersBoard();
 
-        //Copy the piece at each position in the current board to the duplicate board
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                copy.board[i][j] = this.board[i][j];
-            }
-        }
+        //Copy the piece masks of the current board to the duplicate board
+        copy.whitePieces = this.whitePieces;
+        copy.blackPieces = this.blackPieces;
+        copy.kings = this.kings;
+
         //Copy the allianceToMove of the current CheckersBoard object to the duplicate object
         copy.allianceToMove = this.allianceToMove;
 
-        //Copy the plyCount
+        //Copy the plyCount and the Zobrist key
         copy.plyCount = this.plyCount;
+        copy.zobristKey = this.zobristKey;
 
         //Return the duplicate
         return copy;
     }
 
+    /***
+     * Getter method for the private field boardListener
+     * @return The BoardListener called after each change of the position, null if there is none
+     */
+    public BoardListener getBoardListener() {
+        return boardListener;
+    }
+
+    /***
+     * Setter method for the private field boardListener, the new listener is told the current position
+     * @param boardListener The BoardListener to be called after each change of the position, null for none
+     */
+    public void setBoardListener(BoardListener boardListener) {
+        this.boardListener = boardListener;
+        if(boardListener != null)
+            boardListener.positionSet(this);
+    }
+
     /***
      * Getter method for the private field plyCount
      * @return  The plyCount of the current board position
@@ -58,6 +91,7 @@ public class CheckersBoard {
      */
     public void setAllianceToMove(Alliance alliance){
         allianceToMove = alliance;
+        recomputeZobristKey();
     }
 
     /***
@@ -69,45 +103,98 @@ public class CheckersBoard {
     }
 
     /***
-     * Getter method for the private field board
-     * @return The board object member variable which represents the positioning of pieces on the board
+     * Getter method for the private field zobristKey
+     * Two board positions with the same pieces on the same squares and the same alliance to move have the same key,
+     * whatever the moves that led to them
+     * @return The 64-bit Zobrist key of the current board position
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /***
+     * Getter method for the private field whitePieces
+     * @return Mask of the squares occupied by White pawns and kings
+     */
+    public int getWhitePieces() {
+        return whitePieces;
+    }
+
+    /***
+     * Getter method for the private field blackPieces
+     * @return Mask of the squares occupied by Black pawns and kings
+     */
+    public int getBlackPieces() {
+        return blackPieces;
+    }
+
+    /***
+     * Getter method for the private field kings
+     * @return Mask of the squares occupied by kings of either alliance
+     */
+    public int getKings() {
+        return kings;
+    }
+
+    /***
+     * Builds the 8x8 Piece matrix view of the board position.
+     * The matrix is a new copy on every call, so changing it does not change the board position.
+     * Squares on which no piece can be placed are left null.
+     * @return An 8x8 array of Piece objects representing the positioning of pieces on the board
      */
     public Piece[][] getBoard(){
+        Piece[][] board = new Piece[8][8];
+        for (int square = 0; square < 32; square++) {
+            board[BitBoard.rowOf(square)][BitBoard.columnOf(square)] = getPieceAt(square);
+        }
         return board;
     }
 
+    /***
+     * Returns the Piece present at the given row and column of the board
+     * @param row Row value of the square
+     * @param column Column value of the square
+     * @return The Piece at the square, null for the squares on which no piece can be placed
+     */
+    public Piece getPieceAt(int row, int column){
+        if(!BitBoard.isPlayable(row, column))
+            return null;
+        return getPieceAt(BitBoard.squareOf(row, column));
+    }
+
+    /***
+     * Returns the Piece present at the given square of the board
+     * @param square The square number from 0 to 31
+     * @return The Piece at the square
+     */
+    public Piece getPieceAt(int square){
+        int bit = 1 << square;
+        if((whitePieces & bit) != 0)
+            return (kings & bit) != 0 ? Piece.WHITE_KING : Piece.WHITE_PAWN;
+        if((blackPieces & bit) != 0)
+            return (kings & bit) != 0 ? Piece.BLACK_KING : Piece.BLACK_PAWN;
+        return Piece.EMPTY;
+    }
+
     /***
      * Sets up the board with the pieces positioned at places at the start of the game and WHITE to move
      */
     public void setInitialBoardPosition() {
-        //Loop through all the squares on the board
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if ((i + j) % 2 != 0) {     // Pieces are placed only on the squares whose sum of row and column number is odd
-                    if (i < 3)              // For row values 0, 1 and 2 place Black Pawns
-                        board[i][j] = Piece.BLACK_PAWN;
-                    else if (i > 4)         // For row values 5, 6 and 7 place White Pawns
-                        board[i][j] = Piece.WHITE_PAWN;
-                    else                    //For other row values (3 and 4) the square is Empty
-                        board[i][j] = Piece.EMPTY;
-                }
-            }
-        }
+        blackPieces = BitBoard.INITIAL_BLACK_PIECES;    // Rows 0, 1 and 2 hold Black Pawns
+        whitePieces = BitBoard.INITIAL_WHITE_PIECES;    // Rows 5, 6 and 7 hold White Pawns
+        kings = 0;                                      // No kings at the start of the game
         allianceToMove = Alliance.WHITE;    // White makes the first move, so set allianceToMove to WHITE
+        recomputeZobristKey();
     }
 
     /***
      * Sets up the board with all the squares set to Empty
      */
     public void setAllPiecesEmpty(){
-        //Loop through all the squares on the board
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if ((i + j) % 2 != 0) {     // Pieces are placed only on the squares whose sum of row and column number is odd
-                    board[i][j] = Piece.EMPTY;
-                }
-            }
-        }
+        whitePieces = 0;
+        blackPieces = 0;
+        kings = 0;
+        recomputeZobristKey();
     }
 
     /***
@@ -117,38 +204,34 @@ public class CheckersBoard {
      * @param piece The Piece to be placed
      */
     public void setPieceAtPosition(int row,int column, Piece piece){
-        board[row][column] = piece;
+        if(!BitBoard.isPlayable(row, column))   //Pieces can be placed only on the squares whose sum of row and column number is odd
+            return;
+        int bit = 1 << BitBoard.squareOf(row, column);
+        //Clear whatever was at the square before placing the new piece
+        whitePieces &= ~bit;
+        blackPieces &= ~bit;
+        kings &= ~bit;
+        if(piece == Piece.WHITE_PAWN || piece == Piece.WHITE_KING)
+            whitePieces |= bit;
+        else if(piece == Piece.BLACK_PAWN || piece == Piece.BLACK_KING)
+            blackPieces |= bit;
+        if(piece == Piece.WHITE_KING || piece == Piece.BLACK_KING)
+            kings |= bit;
+        recomputeZobristKey();
     }
 
     public List<Move> getAllMovesOfPieceAt(int row, int column){
         List<Move> legalMoves = new ArrayList<>();
-        Piece pieceToMove = this.board[row][column];
-        if(pieceToMove.getAlliance() != this.allianceToMove)
+        Piece pieceToMove = getPieceAt(row, column);
+        if(pieceToMove == null || pieceToMove.getAlliance() != this.allianceToMove)
             return legalMoves;
-        switch (pieceToMove){
-            case WHITE_PAWN:
-                legalMoves.addAll(getAllJumpMovesWhitePawn(row, column));
-                if(legalMoves.isEmpty())
-                    legalMoves.addAll(getAllSimpleMovesWhitePawn(row, column));
-                return legalMoves;
-            case BLACK_PAWN:
-                legalMoves.addAll(getAllJumpMovesBlackPawn(row, column));
-                if(legalMoves.isEmpty())
-                    legalMoves.addAll(getAllSimpleMovesBlackPawn(row, column));
-                return legalMoves;
-            case WHITE_KING:
-                legalMoves.addAll(getAllJumpMovesWhiteKing(row, column));
-                if(legalMoves.isEmpty())
-                    legalMoves.addAll(getAllSimpleMovesKing(row, column));
-                return legalMoves;
-            case BLACK_KING:
-                legalMoves.addAll(getAllJumpMovesBlackKing(row, column));
-                if(legalMoves.isEmpty())
-                    legalMoves.addAll(getAllSimpleMovesKing(row, column));
-                return legalMoves;
-            default:
-                return legalMoves;
-        }
+        int square = BitBoard.squareOf(row, column);
+        MoveBuffer moveBuffer = new MoveBuffer();
+        generateJumpMovesOfPiece(moveBuffer, square, square, (kings & (1 << square)) != 0, 0, 0);
+        if(moveBuffer.size() == 0)
+            generateSimpleMovesOfPiece(moveBuffer, square);
+        addAllAsMoves(legalMoves, moveBuffer);
+        return legalMoves;
     }
 
     /***
@@ -159,415 +242,260 @@ public class CheckersBoard {
         //Create a list of Move which holds all the possible legal moves in the current position
         List<Move> legalMoves = new ArrayList<>();
 
-        //Add all the possible jump moves to the list of legal moves
-        legalMoves.addAll(getAllJumpMoves());
-
-        //Add all possible simple moves to the list of legal moves, only when no jump moves where present
-        if (legalMoves.isEmpty())       //Simple moves are possible only when no jump move are present in the current board position
-            legalMoves.addAll(getAllSimpleMoves());
+        //Generate the packed legal moves and convert each of them to a SimpleMove or JumpMove object
+        MoveBuffer moveBuffer = new MoveBuffer();
+        generateMoves(moveBuffer);
+        addAllAsMoves(legalMoves, moveBuffer);
 
         return legalMoves;
     }
 
     /***
-     * Used to get all the possible simple moves in the given board position
-     * @return List of SimpleMoves that are possible in the current board position
+     * Used to get all the possible jump moves in the given board position
+     * @return List of JumpMoves that are possible in the current board position
      */
-    private List<SimpleMove> getAllSimpleMoves() {
-        //Create a list of SimpleMove which will hold all the possible SimpleMove of PAWNs and KINGs in the position for the Allaince to make move
-        List<SimpleMove> legalSimpleMoves = new ArrayList<>();
+    public List<JumpMove> getAllJumpMoves() {
+        //Generate the jump moves into a buffer and convert each of them to a JumpMove object
+        MoveBuffer moveBuffer = new MoveBuffer();
+        generateJumpMoves(moveBuffer);
+        List<JumpMove> legalMoves = new ArrayList<>(moveBuffer.size());
+        addAllAsMoves(legalMoves, moveBuffer);
+        return legalMoves;
+    }
 
-        //Loop through all the squares on the board
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if ((i + j) % 2 != 0) {         // Pieces are present only on the squares whose sum of row and column number is odd
-                    if (board[i][j].getAlliance() == allianceToMove) {  //Add the moves of the piece only if its Alliance is same as the Alliance that has to make the next move
-                        //Call the corresponding method for the particular Piece and add the retuned list of moves to the list of legal moves
-                        switch(board[i][j]){
-                            case WHITE_PAWN:
-                                legalSimpleMoves.addAll(getAllSimpleMovesWhitePawn(i,j));
-                                break;
-                            case WHITE_KING:
-                                legalSimpleMoves.addAll(getAllSimpleMovesKing(i,j));
-                                break;
-                            case BLACK_PAWN:
-                                legalSimpleMoves.addAll(getAllSimpleMovesBlackPawn(i,j));
-                                break;
-                            case BLACK_KING:
-                                legalSimpleMoves.addAll(getAllSimpleMovesKing(i,j));
-                                break;
-                        }
-                    }
-                }
-            }
+    @SuppressWarnings("unchecked")
+    private <T extends Move> void addAllAsMoves(List<T> legalMoves, MoveBuffer moveBuffer){
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            legalMoves.add((T) toMove(moveBuffer.get(i)));
         }
-        return legalSimpleMoves;
     }
 
     /***
-     * Used to get all the possible SimpleMove of a White Pawn present at given square on the board
-     * @param row The row number of the White Pawn
-     * @param column The column number of the White Pawn
-     * @return List of SimpleMove possible for the given White Pawn in the given board position
+     * Appends all the legal moves in the given board position to the given buffer as packed moves.
+     * Simple moves are added only when no jump move is possible, as a jump has to be made whenever one is possible.
+     * @param moveBuffer The buffer to which the moves are appended
+     * @return The number of moves appended to the buffer
      */
-    private List<SimpleMove> getAllSimpleMovesWhitePawn(int row, int column) {
-        List<SimpleMove> legalSimpleMoves = new ArrayList<>();
-        if (column > 0 && this.board[row - 1][column - 1] == Piece.EMPTY)   //Condition for diagonal move in the Up Left direction
-            //Create corresponding SimpleMove object for the found move and add it to list of legalSmpleMoves
-            legalSimpleMoves.add(new SimpleMove(row, column, row - 1, column - 1));
-        if (column < 7 && this.board[row - 1][column + 1] == Piece.EMPTY)   //Condition for diagonal move in the Up Right direction
-            //Create corresponding SimpleMove object for the found move and add it to list of legalSmpleMoves
-            legalSimpleMoves.add(new SimpleMove(row, column, row - 1, column + 1));
-        return legalSimpleMoves;
+    public int generateMoves(MoveBuffer moveBuffer) {
+        int jumpMoveCount = generateJumpMoves(moveBuffer);
+        if (jumpMoveCount != 0)
+            return jumpMoveCount;
+        return generateSimpleMoves(moveBuffer);
     }
 
     /***
-     * Used to get all the possible SimpleMove of a Black Pawn present at given square on the board
-     * @param row The row number of the Black Pawn
-     * @param column The column number of the Black Pawn
-     * @return List of SimpleMove possible for the given Black Pawn in the given board position
+     * Appends all the possible simple moves in the given board position to the given buffer as packed moves
+     * @param moveBuffer The buffer to which the simple moves are appended
+     * @return The number of simple moves appended to the buffer
      */
-    private List<SimpleMove> getAllSimpleMovesBlackPawn(int row, int column) {
-        List<SimpleMove> legalSimpleMoves = new ArrayList<>();
-        if (column > 0 && this.board[row + 1][column - 1] == Piece.EMPTY)   //Condition for diagonal move in the Down Left direction
-            //Create corresponding SimpleMove object for the found move and add it to list of legalSmpleMoves
-            legalSimpleMoves.add(new SimpleMove(row, column, row + 1, column - 1));
-        if (column < 7 && this.board[row + 1][column + 1] == Piece.EMPTY)   //Condition for diagonal move in the Down Right direction
-            //Create corresponding SimpleMove object for the found move and add it to list of legalSmpleMoves
-            legalSimpleMoves.add(new SimpleMove(row, column, row + 1, column + 1));
-        return legalSimpleMoves;
+    public int generateSimpleMoves(MoveBuffer moveBuffer) {
+        int sizeBefore = moveBuffer.size();
+
+        //Find all the pieces which have an empty square next to them in a direction they are allowed to move in
+        int empty = getEmptySquares();
+        int movers = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            movers |= getPiecesMovingIn(direction) & BitBoard.sources(direction, empty);
+        }
+
+        //Add the moves of each such piece, the pieces are visited in the order of their squares, i.e. row by row
+        while (movers != 0) {
+            int square = Integer.numberOfTrailingZeros(movers);
+            movers &= movers - 1;
+            generateSimpleMovesOfPiece(moveBuffer, square);
+        }
+        return moveBuffer.size() - sizeBefore;
     }
 
     /***
-     * Used to get all the possible SimpleMove of a King present at given square on the board
-     * Both White and Black Kings make moves in all the four directions so we dont need different methods for them whereas
-     * The White pawns were restricted to move in upward direction and Black pawns to move in downward direction
-     * @param row The row number of the King
-     * @param column The column number of the King
-     * @return List of SimpleMove possible for the given Black Pawn in the given board position
+     * Appends all the possible simple moves of the piece present at given square on the board to the given buffer
+     * Kings move in all the four directions whereas White pawns move only upwards and Black pawns only downwards
+     * @param moveBuffer The buffer to which the simple moves are appended
+     * @param square The square of the piece
      */
-    private List<SimpleMove> getAllSimpleMovesKing(int row, int column) {
-        List<SimpleMove> legalSimpleMoves = new ArrayList<>();
-        //Conditions to check move possibility in all 4 directions and then adding them to list of legalMoves
-        if (column > 0 && row > 0 && this.board[row - 1][column - 1] == Piece.EMPTY)
-            legalSimpleMoves.add(new SimpleMove(row, column, row - 1, column - 1));
-        if (column < 7 && row > 0 && this.board[row - 1][column + 1] == Piece.EMPTY)
-            legalSimpleMoves.add(new SimpleMove(row, column, row - 1, column + 1));
-        if (column > 0 && row < 7 && this.board[row + 1][column - 1] == Piece.EMPTY)
-            legalSimpleMoves.add(new SimpleMove(row, column, row + 1, column - 1));
-        if (column < 7 && row < 7 && this.board[row + 1][column + 1] == Piece.EMPTY)
-            legalSimpleMoves.add(new SimpleMove(row, column, row + 1, column + 1));
-        return legalSimpleMoves;
+    private void generateSimpleMovesOfPiece(MoveBuffer moveBuffer, int square) {
+        int empty = getEmptySquares();
+        boolean isKing = (kings & (1 << square)) != 0;
+        for (int direction = 0; direction < 4; direction++) {
+            if (!isKing && !BitBoard.isForward(allianceToMove, direction))
+                continue;
+            int target = BitBoard.neighbour(direction, square);
+            if (target >= 0 && (empty & (1 << target)) != 0)     //Condition for diagonal move to an empty square
+                moveBuffer.add(PackedMove.of(square, target, 0, !isKing && isOnKingRow(target)));
+        }
     }
 
     /***
-     * Used to get all the possible jump moves in the given board position
-     * @return List of JumpMoves that are possible in the current board position
+     * Appends all the possible jump moves in the given board position to the given buffer as packed moves.
+     * The jump sequences are found by making and unmaking each single jump on this board position itself,
+     * so nothing is allocated unless the buffer has to grow. The board position is the same as before once the method returns.
+     * @param moveBuffer The buffer to which the jump moves are appended
+     * @return The number of jump moves appended to the buffer
      */
-    public List<JumpMove> getAllJumpMoves() {
-        //Create a list of SimpleMove which will hold all the possible SimpleMove of PAWNs and KINGs in the position for the Alliance to make move
-        List<JumpMove> legalMoves = new ArrayList<>();
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if ((i + j) % 2 != 0) {     // Pieces are present only on the squares whose sum of row and column number is odd
-                    if (board[i][j].getAlliance() == allianceToMove) {     //Add the moves of the piece only if its Alliance is same as the Alliance that has to make the next move
-                        //Call the corresponding method for the particular Piece and add the returned list of moves to the list of legal moves
-                        switch(board[i][j]){
-                            case WHITE_PAWN:
-                                legalMoves.addAll(getAllJumpMovesWhitePawn(i,j));
-                                break;
-                            case WHITE_KING:
-                                legalMoves.addAll(getAllJumpMovesWhiteKing(i,j));
-                                break;
-                            case BLACK_PAWN:
-                                legalMoves.addAll(getAllJumpMovesBlackPawn(i,j));
-                                break;
-                            case BLACK_KING:
-                                legalMoves.addAll(getAllJumpMovesBlackKing(i,j));
-                                break;
-                        }
-                    }
-                }
-            }
+    public int generateJumpMoves(MoveBuffer moveBuffer) {
+        int sizeBefore = moveBuffer.size();
+
+        //Find all the pieces which have an opposition piece next to them and an empty square behind it in a direction they are allowed to move in
+        int empty = getEmptySquares();
+        int opponent = allianceToMove == Alliance.WHITE ? blackPieces : whitePieces;
+        int jumpers = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            jumpers |= getPiecesMovingIn(direction) & BitBoard.sources(direction, opponent & BitBoard.sources(direction, empty));
         }
-        return legalMoves;
+
+        //Add the jump moves of each such piece, the pieces are visited in the order of their squares, i.e. row by row
+        while (jumpers != 0) {
+            int square = Integer.numberOfTrailingZeros(jumpers);
+            jumpers &= jumpers - 1;
+            generateJumpMovesOfPiece(moveBuffer, square, square, (kings & (1 << square)) != 0, 0, 0);
+        }
+        return moveBuffer.size() - sizeBefore;
     }
 
     /***
-     * Used to get all the possible JumpMove of a White Pawn present at given square on the board
-     * It calls the recursive method getAllJumpMovesWhitePawn() to add the JumpMoves to list of legal moves
-     * @param row The row number of the White Pawn
-     * @param column The column number of the White Pawn
-     * @return List of JumpMove possible for the given White Pawn in the given board position
+     * Recursive method which appends to the buffer all possible jump moves of the given piece.
+     * Each single jump, including the capture, is made on this board position before the recursive call and unmade after it,
+     * the values needed to unmake it are kept in the local variables of the call
+     * @param moveBuffer The buffer to which the jump moves are appended
+     * @param initialSquare The square of the jumping piece before the jump move
+     * @param square The square of the jumping piece after the partial jump move found out till the present call
+     * @param isKing Whether the jumping piece is a king, which can jump in all the four directions
+     * @param captured Mask of the pieces captured by the partial jump move
+     * @param jumpCount The number of jumps in the partial jump move
      */
-    private List<JumpMove> getAllJumpMovesWhitePawn(int row, int column) {
-        List<JumpMove> legalMoves = new ArrayList<>();
-        //Call the recursive method which find all the jumpmoves for the white pawn and adds them to the List legalMoves passed to it
-        getAllJumpMovesWhitePawn(legalMoves, new JumpMove(), row, column, this.clone());
-        //return the updated list of legal moves
-        return legalMoves;
+    private void generateJumpMovesOfPiece(MoveBuffer moveBuffer, int initialSquare, int square, boolean isKing, int captured, int jumpCount) {
+        boolean isLastJump = true;      //boolean variable to represent whether this board position was the ending of the jump move
+        int empty = getEmptySquares();
+        int opponent = allianceToMove == Alliance.WHITE ? blackPieces : whitePieces;
+        for (int direction = 0; direction < 4; direction++) {
+            if (!isKing && !BitBoard.isForward(allianceToMove, direction))     //Pawns jump only in the forward directions
+                continue;
+            int jumpedSquare = BitBoard.neighbour(direction, square);
+            if (jumpedSquare < 0)
+                continue;
+            int finalSquare = BitBoard.neighbour(direction, jumpedSquare);
+            //Condition to check if a jump over an opposition piece to an empty square is possible in current board position
+            if (finalSquare >= 0 && (opponent & (1 << jumpedSquare)) != 0 && (empty & (1 << finalSquare)) != 0) {
+                //Make the jump on this board position, continue the sequence from the new square and then unmake the jump
+                int jumpedBit = 1 << jumpedSquare;
+                int jumpedKing = kings & jumpedBit;
+                long zobristKeyBefore = zobristKey;
+                removePiece(jumpedSquare);
+                movePiece(square, finalSquare);
+                generateJumpMovesOfPiece(moveBuffer, initialSquare, finalSquare, isKing, captured | jumpedBit, jumpCount + 1);
+                movePiece(finalSquare, square);
+                if (allianceToMove == Alliance.WHITE)
+                    blackPieces |= jumpedBit;
+                else
+                    whitePieces |= jumpedBit;
+                kings |= jumpedKing;
+                zobristKey = zobristKeyBefore;
+                //Update the isLastJump boolean variable to false because as a jump is made
+                isLastJump = false;
+            }
+        }
+        //Add the jump move to the buffer if we are at the end of the jump sequence and at least one jump was made
+        //A king can capture the same pieces in a circle in either order, both orders give the same move so it is added only once
+        if (isLastJump && jumpCount != 0) {
+            long jumpMove = PackedMove.of(initialSquare, square, captured, !isKing && isOnKingRow(square));
+            if (!isAlreadyAdded(moveBuffer, jumpMove))
+                moveBuffer.add(jumpMove);
+        }
     }
 
     /***
-     * Used to get all the possible JumpMove of a Black Pawn present at given square on the board
-     * It calls the recursive method getAllJumpMovesBlackPawn() to add the JumpMoves to list of legal moves
-     * @param row The row number of the Black Pawn
-     * @param column The column number of the Black Pawn
-     * @return List of JumpMove possible for the given Black Pawn in the given board position
+     * Checks whether the given jump move is among the jump moves of the same piece at the end of the buffer
+     * @param moveBuffer The buffer to which the jump moves of the piece are being appended
+     * @param jumpMove The packed jump move
+     * @return True if the same move is already in the buffer
      */
-    private List<JumpMove> getAllJumpMovesBlackPawn(int row, int column) {
-        List<JumpMove> legalMoves = new ArrayList<>();
-        //Call the recursive method which find all the jumpmoves for the black pawn and adds them to the List legalMoves passed to it.
-        getAllJumpMovesBlackPawn(legalMoves, new JumpMove(), row, column, this.clone());
-        //return the updated list of legal moves
-        return legalMoves;
+    private static boolean isAlreadyAdded(MoveBuffer moveBuffer, long jumpMove) {
+        int initialSquare = PackedMove.getInitialSquare(jumpMove);
+        for (int i = moveBuffer.size() - 1; i >= 0 && PackedMove.getInitialSquare(moveBuffer.get(i)) == initialSquare; i--) {
+            if (moveBuffer.get(i) == jumpMove)
+                return true;
+        }
+        return false;
     }
 
     /***
-     * Used to get all the possible JumpMove of a White King present at given square on the board
-     * It calls the recursive method getAllJumpMovesWhiteKing() to add the JumpMoves to list of legal moves
-     * @param row The row number of the White King
-     * @param column The column number of the White King
-     * @return List of JumpMove possible for the given White King in the given board position
+     * Converts a Move object to the equivalent packed move in the current board position
+     * @param move The SimpleMove or JumpMove to be converted
+     * @return The packed move, see the PackedMove class
      */
-    private List<JumpMove> getAllJumpMovesWhiteKing(int row, int column) {
-        List<JumpMove> legalMoves = new ArrayList<>();
-        //Call the recursive method which find all the jumpmoves for the white king and adds them to the List legalMoves passed to it
-        getAllJumpMovesWhiteKing(legalMoves, new JumpMove(), row, column, this.clone());
-        //return the updated list of legal moves
-        return legalMoves;
+    public long toPackedMove(Move move) {
+        int initialSquare, finalSquare, captured = 0;
+        if (move instanceof JumpMove) {
+            List<SimpleMove> jumps = ((JumpMove) move).jumps;
+            SimpleMove firstJump = jumps.get(0);
+            SimpleMove lastJump = jumps.get(jumps.size()-1);
+            initialSquare = BitBoard.squareOf(firstJump.initialRowPosition, firstJump.initialColumnPosition);
+            finalSquare = BitBoard.squareOf(lastJump.finalRowPosition, lastJump.finalColumnPosition);
+            for (SimpleMove jump : jumps) {
+                captured |= 1 << BitBoard.squareOf((jump.initialRowPosition + jump.finalRowPosition) / 2,
+                        (jump.initialColumnPosition + jump.finalColumnPosition) / 2);
+            }
+        } else {
+            SimpleMove simpleMove = (SimpleMove) move;
+            initialSquare = BitBoard.squareOf(simpleMove.initialRowPosition, simpleMove.initialColumnPosition);
+            finalSquare = BitBoard.squareOf(simpleMove.finalRowPosition, simpleMove.finalColumnPosition);
+        }
+        boolean isPromotion = (kings & (1 << initialSquare)) == 0 && isOnKingRow(finalSquare);
+        return PackedMove.of(initialSquare, finalSquare, captured, isPromotion);
     }
 
     /***
-     * Used to get all the possible JumpMove of a Black King present at given square on the board
-     * It calls the recursive method getAllJumpMovesBlackKing() to add the JumpMoves to list of legal moves
-     * @param row The row number of the Black King
-     * @param column The column number of the Black King
-     * @return List of JumpMove possible for the given Black King in the given board position
+     * Converts a packed move to the equivalent SimpleMove or JumpMove object in the current board position.
+     * The packed move keeps only the captured pieces of a jump move, so the single jumps are found again by
+     * following the captured pieces from the initial square to the final square
+     * @param packedMove The packed move to be converted, see the PackedMove class
+     * @return The SimpleMove or JumpMove object
      */
-    private List<JumpMove> getAllJumpMovesBlackKing(int row, int column) {
-        List<JumpMove> legalMoves = new ArrayList<>();
-        //Call the recursive method which find all the jumpmoves for the black king and adds them to the List legalMoves passed to it
-        getAllJumpMovesBlackKing(legalMoves, new JumpMove(), row, column, this.clone());
-        //return the updated list of legal moves
-        return legalMoves;
+    public Move toMove(long packedMove) {
+        int initialSquare = PackedMove.getInitialSquare(packedMove);
+        int finalSquare = PackedMove.getFinalSquare(packedMove);
+        if (!PackedMove.isJumpMove(packedMove))
+            return new SimpleMove(BitBoard.rowOf(initialSquare), BitBoard.columnOf(initialSquare), BitBoard.rowOf(finalSquare), BitBoard.columnOf(finalSquare));
+        JumpMove jumpMove = new JumpMove();
+        int empty = getEmptySquares() | (1 << initialSquare);   //The jumping piece leaves its initial square, so it can land there again
+        findJumpPath(jumpMove, initialSquare, finalSquare, PackedMove.getCapturedPieces(packedMove), empty);
+        return jumpMove;
     }
 
     /***
-     * Recursive method which updates the list of legal moves passed to it by finding all possible jump moves for given white pawn
-     * in the given board position passed to it
-     * @param legalMoves The list of JumpMove found out till the present call
-     * @param jumpMove The partial JumpMove fount out till the present call
-     * @param row The row number of the White Pawn
-     * @param column The column number of the White Pawn
-     * @param checkersBoard The current board position after the partial JumpMove jumpmove has been made
+     * Recursive method which adds to the given JumpMove the single jumps over all the remaining captured pieces ending at the final square
+     * @return True if such a sequence of jumps was found
      */
-    private void getAllJumpMovesWhitePawn(List<JumpMove> legalMoves, JumpMove jumpMove, int row, int column, CheckersBoard checkersBoard) {
-        boolean isLastJump = true;      //boolean variable to represent whether this board position was the ending of the jump move
-        if (row > 1) {      // White Pawn can make a Jump Move only when the value is greater that 1
-            if (column > 1 && checkersBoard.board[row - 1][column - 1].getAlliance() == Alliance.BLACK
-                    && checkersBoard.board[row - 2][column - 2] == Piece.EMPTY) {   //Condition to check if Up Left Jump is possible in current board position
-                //Create a copy of the partial jumpmove in order to allow the jumpmove to be used in later condition without being changed
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                //Add the found jump to the jumpMoveCopy
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row - 2, column - 2));
-                //Create a copy of the partial jumpmove in order to allow the jumpmove to be used in later condition without being changed
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                //Make the found jump on the checkersBoardCopy
-                checkersBoardCopy.makeOneJump(row, column, row-2, column-2);
-                //Recursive call for the new partial jump for the new board position found after making the jump and the white pawn position at the new position
-                getAllJumpMovesWhitePawn(legalMoves, jumpMoveCopy, row - 2, column - 2, checkersBoardCopy);
-                //Update the isLastJump boolean variable to false because as a jump is made
-                isLastJump = false;
-            }
-            if (column < 6 && checkersBoard.board[row - 1][column + 1].getAlliance() == Alliance.BLACK
-                    && checkersBoard.board[row - 2][column + 2] == Piece.EMPTY) {   //Condition to check if Up Right Jump is possible in current board position
-                //TODO the cloning done here can be removed as the jumpMove and the checkersBoard is not needed by any more coming conditions
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row - 2, column + 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoard.makeOneJump(row, column, row-2, column+2);
-                getAllJumpMovesWhitePawn(legalMoves, jumpMoveCopy, row - 2, column + 2, checkersBoardCopy);
-            }
+    private boolean findJumpPath(JumpMove jumpMove, int square, int finalSquare, int remainingCaptured, int empty) {
+        if (remainingCaptured == 0)
+            return square == finalSquare;
+        for (int direction = 0; direction < 4; direction++) {
+            int jumpedSquare = BitBoard.neighbour(direction, square);
+            if (jumpedSquare < 0 || (remainingCaptured & (1 << jumpedSquare)) == 0)
+                continue;
+            int nextSquare = BitBoard.neighbour(direction, jumpedSquare);
+            if (nextSquare < 0 || (empty & (1 << nextSquare)) == 0)
+                continue;
+            jumpMove.jumps.add(new SimpleMove(BitBoard.rowOf(square), BitBoard.columnOf(square), BitBoard.rowOf(nextSquare), BitBoard.columnOf(nextSquare)));
+            if (findJumpPath(jumpMove, nextSquare, finalSquare, remainingCaptured & ~(1 << jumpedSquare), empty))
+                return true;
+            jumpMove.jumps.remove(jumpMove.jumps.size()-1);
         }
-        //Add the jumpMove found recursively to the list of legal moves, if we are at the end of the jump sequence
-        //isLastJump represents whether we have reached the end sequence of the jump moves
-        //The jumpMove is to be added only when it was a jump sequence not an empty jump found in places where jumpMove was not possible at all
-        //  jumpMove.jumps.size()!= 0 checks the last provided condition
-        if (isLastJump && jumpMove.jumps.size() != 0)
-            legalMoves.add(jumpMove);
-    }
-
-    /***
-     * Recursive method which updates the list of legal moves passed to it by finding all possible jump moves for given Black pawn
-     * in the given board position passed to it
-     * @param legalMoves The list of JumpMove found out till the present call
-     * @param jumpMove The partial JumpMove fount out till the present call
-     * @param row The row number of the Black Pawn
-     * @param column The column number of the Black Pawn
-     * @param checkersBoard The current board position after the partial JumpMove jumpmove has been made
-     */
-    private void getAllJumpMovesBlackPawn(List<JumpMove> legalMoves, JumpMove jumpMove, int row, int column, CheckersBoard checkersBoard) {
-        //Working similar to getAllJumpMovesWhitePawn() method
-        boolean isLastJump = true;
-        if (row < 6) {
-            if (column > 1 && checkersBoard.board[row + 1][column - 1].getAlliance() == Alliance.WHITE
-                    && checkersBoard.board[row + 2][column - 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row + 2, column - 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column, row+2, column-2);
-                getAllJumpMovesBlackPawn(legalMoves, jumpMoveCopy, row + 2, column - 2, checkersBoardCopy);
-                isLastJump = false;
-            }
-            if (column < 6 && checkersBoard.board[row + 1][column + 1].getAlliance() == Alliance.WHITE
-                    && checkersBoard.board[row + 2][column + 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row + 2, column + 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column, row+2, column+2);
-                getAllJumpMovesBlackPawn(legalMoves, jumpMoveCopy, row + 2, column + 2, checkersBoard.clone());
-                isLastJump = false;
-            }
-        }
-        if (isLastJump && jumpMove.jumps.size() != 0)
-            legalMoves.add(jumpMove);
-    }
-
-    /***
-     * Recursive method which updates the list of legal moves passed to it by finding all possible jump moves for given White King
-     * in the given board position passed to it
-     * @param legalMoves The list of JumpMove found out till the present call
-     * @param jumpMove The partial JumpMove fount out till the present call
-     * @param row The row number of the White King
-     * @param column The column number of the White King
-     * @param checkersBoard The current board position after the partial JumpMove jumpmove has been made
-     */
-    private void getAllJumpMovesWhiteKing(List<JumpMove> legalMoves, JumpMove jumpMove, int row, int column, CheckersBoard checkersBoard) {
-        //Working similar to getAllJumpMovesWhitePawn() method
-        boolean isLastJump = true;
-        if (row > 1) {
-            if (column > 1 && checkersBoard.board[row - 1][column - 1].getAlliance() == Alliance.BLACK
-                    && checkersBoard.board[row - 2][column - 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row - 2, column - 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column, row-2, column-2);
-                getAllJumpMovesWhiteKing(legalMoves, jumpMoveCopy, row - 2, column - 2, checkersBoardCopy);
-                isLastJump = false;
-            }
-            if (column < 6 && checkersBoard.board[row - 1][column + 1].getAlliance() == Alliance.BLACK
-                    && checkersBoard.board[row - 2][column + 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row - 2, column + 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column, row-2, column+2);
-                getAllJumpMovesWhiteKing(legalMoves, jumpMoveCopy, row - 2, column + 2, checkersBoardCopy);
-                isLastJump = false;
-            }
-        }
-        if (row < 6) {
-            if (column > 1 && checkersBoard.board[row + 1][column - 1].getAlliance() == Alliance.BLACK
-                    && checkersBoard.board[row + 2][column - 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row + 2, column - 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column,row+2, column-2);
-                getAllJumpMovesWhiteKing(legalMoves, jumpMoveCopy, row + 2, column - 2, checkersBoardCopy);
-                isLastJump = false;
-            }
-            if (column < 6 && checkersBoard.board[row + 1][column + 1].getAlliance() == Alliance.BLACK
-                    && checkersBoard.board[row + 2][column + 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row + 2, column + 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column, row+2, column+2);
-                getAllJumpMovesWhiteKing(legalMoves, jumpMoveCopy, row + 2, column + 2, checkersBoardCopy);
-                isLastJump = false;
-            }
-        }
-        if (isLastJump && jumpMove.jumps.size() != 0)
-            legalMoves.add(jumpMove);
-    }
-
-    /***
-     * Recursive method which updates the list of legal moves passed to it by finding all possible jump moves for given Black King
-     * in the given board position passed to it
-     * @param legalMoves The list of JumpMove found out till the present call
-     * @param jumpMove The partial JumpMove fount out till the present call
-     * @param row The row number of the Black King
-     * @param column The column number of the Black King
-     * @param checkersBoard The current board position after the partial JumpMove jumpmove has been made
-     */
-    private void getAllJumpMovesBlackKing(List<JumpMove> legalMoves, JumpMove jumpMove, int row, int column, CheckersBoard checkersBoard) {
-        //Working similar to getAllJumpMovesWhitePawn() method
-        boolean isLastJump = true;
-        if (row > 1) {
-            if (column > 1 && checkersBoard.board[row - 1][column - 1].getAlliance() == Alliance.WHITE
-                    && checkersBoard.board[row - 2][column - 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row - 2, column - 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column,row-2, column-2);
-                getAllJumpMovesBlackKing(legalMoves, jumpMoveCopy, row - 2, column - 2, checkersBoardCopy);
-                isLastJump = false;
-            }
-            if (column < 6 && checkersBoard.board[row - 1][column + 1].getAlliance() == Alliance.WHITE
-                    && checkersBoard.board[row - 2][column + 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row - 2, column + 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column, row-2, column+2);
-                getAllJumpMovesBlackKing(legalMoves, jumpMoveCopy, row - 2, column + 2, checkersBoardCopy);
-                isLastJump = false;
-            }
-        }
-        if (row < 6) {
-            if (column > 1 && checkersBoard.board[row + 1][column - 1].getAlliance() == Alliance.WHITE
-                    && checkersBoard.board[row + 2][column - 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row + 2, column - 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column, row+2, column-2);
-                getAllJumpMovesBlackKing(legalMoves, jumpMoveCopy, row + 2, column - 2, checkersBoardCopy);
-                isLastJump = false;
-            }
-            if (column < 6 && checkersBoard.board[row + 1][column + 1].getAlliance() == Alliance.WHITE
-                    && checkersBoard.board[row + 2][column + 2] == Piece.EMPTY) {
-                JumpMove jumpMoveCopy = jumpMove.clone();
-                jumpMoveCopy.jumps.add(new SimpleMove(row, column, row + 2, column + 2));
-                CheckersBoard checkersBoardCopy = checkersBoard.clone();
-                checkersBoardCopy.makeOneJump(row, column, row+2, column+2);
-                getAllJumpMovesBlackKing(legalMoves, jumpMoveCopy, row + 2, column + 2, checkersBoard.clone());
-                isLastJump = false;
-            }
-        }
-        if (isLastJump && jumpMove.jumps.size() != 0)
-            legalMoves.add(jumpMove);
+        return false;
     }
 
     /***
-     * Makes a single jump on the board position that calls it with the given initial and final squares of the jump move
-     * Helps the recursive getAllJumpMovesX() methods by making a single jump on the board and the Alliance to move remains same
-     * @param initialRow The row position of the Piece before making the jump
-     * @param initialColumn The column position of the Piece before making the jump
-     * @param finalRow The row position of the Piece after making the jump
-     * @param finalColumn The column position of the Piece after making the jump
+     * Makes a single jump on the board position that calls it with the given initial, jumped over and final squares of the jump move
+     * Helps makeJumpMove() by making a single jump on the board and the Alliance to move remains same
+     * @param initialSquare The square of the Piece before making the jump
+     * @param jumpedSquare The square of the Piece that is jumped over
+     * @param finalSquare The square of the Piece after making the jump
      */
-    private void makeOneJump(int initialRow, int initialColumn, int finalRow, int finalColumn){
-        //Get the piece that whose jump is to be made
-        Piece jumpingPiece = board[initialRow][initialColumn];
-
-        //Find the row and column position of the Piece that the jumpingPiece is jumping over
-        int midRow = (initialRow + finalRow)/2;
-        int midColumn = (initialColumn + finalColumn)/2;
-
-        //Make the initial square empty
-        board[initialRow][initialColumn] = Piece.EMPTY;
+    private void makeOneJump(int initialSquare, int jumpedSquare, int finalSquare){
         //Make the jumped over square empty (capture the piece)
-        board[midRow][midColumn] = Piece.EMPTY;
-        //Move the jumping piece to the final square
-        board[finalRow][finalColumn] = jumpingPiece;
+        removePiece(jumpedSquare);
+        //Move the jumping piece from the initial square to the final square
+        movePiece(initialSquare, finalSquare);
     }
 
     /***
@@ -575,6 +503,9 @@ public class CheckersBoard {
      * @param move The Move to be made
      */
     public void makeMove(Move move) {
+        //Remember the piece masks so that the move can be unmade
+        pushUndoRecord();
+
         //Call the corresponding method based on whether it a JumpMove or a SimpleMove
         if (move instanceof JumpMove)   //Check if it is a JumpMove
             makeJumpMove((JumpMove) move);
@@ -583,9 +514,81 @@ public class CheckersBoard {
 
         //Change the alliance to move to the opposite alliance
         this.allianceToMove = allianceToMove.getOppositeAlliance();
+        zobristKey ^= Zobrist.blackToMoveKey();
 
         //Increment the plyCount by 1
         this.plyCount++;
+        if(boardListener != null)
+            boardListener.moveMade(this);
+    }
+
+    /***
+     * Makes the given packed move on the current board position and changes the alliance to move
+     * The move can be taken back with unmakeMove() just like a move made with makeMove(Move)
+     * @param packedMove The packed move to be made, see the PackedMove class
+     */
+    public void makeMove(long packedMove) {
+        //Remember the piece masks so that the move can be unmade
+        pushUndoRecord();
+
+        //Remove the captured pieces of the opposition
+        int captured = PackedMove.getCapturedPieces(packedMove);
+        while (captured != 0) {
+            removePiece(Integer.numberOfTrailingZeros(captured));
+            captured &= captured - 1;
+        }
+
+        //Move the piece, a king may end a circular jump move on its initial square
+        int initialSquare = PackedMove.getInitialSquare(packedMove);
+        int finalSquare = PackedMove.getFinalSquare(packedMove);
+        if (initialSquare != finalSquare)
+            movePiece(initialSquare, finalSquare);
+
+        //Upgrade the pawn to a king
+        if (PackedMove.isPromotion(packedMove))
+            promotePiece(finalSquare);
+
+        //Change the alliance to move to the opposite alliance and increment the plyCount by 1
+        this.allianceToMove = allianceToMove.getOppositeAlliance();
+        zobristKey ^= Zobrist.blackToMoveKey();
+        this.plyCount++;
+        if(boardListener != null)
+            boardListener.moveMade(this);
+    }
+
+    /***
+     * Takes back the last move made with makeMove() that has not been taken back yet.
+     * The captured pieces, the promoted pawn, the alliance to move and the plyCount are restored from the undo record of the move,
+     * so a search can make and unmake moves on a single board position instead of cloning it for every node
+     */
+    public void unmakeMove() {
+        undoCount--;
+        whitePieces = undoStack[3*undoCount];
+        blackPieces = undoStack[3*undoCount + 1];
+        kings = undoStack[3*undoCount + 2];
+        zobristKey = undoKeyStack[undoCount];
+        this.allianceToMove = allianceToMove.getOppositeAlliance();
+        this.plyCount--;
+        if(boardListener != null)
+            boardListener.moveUnmade(this);
+    }
+
+    /***
+     * Saves the current piece masks and Zobrist key on the undo stack, growing it if it is full
+     */
+    private void pushUndoRecord() {
+        if (undoStack == null) {
+            undoStack = new int[3*32];
+            undoKeyStack = new long[32];
+        } else if (undoCount == undoKeyStack.length) {
+            undoStack = Arrays.copyOf(undoStack, 2*undoStack.length);
+            undoKeyStack = Arrays.copyOf(undoKeyStack, 2*undoKeyStack.length);
+        }
+        undoStack[3*undoCount] = whitePieces;
+        undoStack[3*undoCount + 1] = blackPieces;
+        undoStack[3*undoCount + 2] = kings;
+        undoKeyStack[undoCount] = zobristKey;
+        undoCount++;
     }
 
     /***
@@ -596,37 +599,17 @@ public class CheckersBoard {
         //Loop through all the SimpleMoves in the jumps list of the JumpMove and make each move on the board
         for (SimpleMove simpleMove : jumpMove.jumps) {
             //Make each single jump
-
-            //Finding the initial square
-            int initialRow = simpleMove.initialRowPosition;
-            int initialColumn = simpleMove.initialColumnPosition;
-            //Finding the final square
-            int finalRow = simpleMove.finalRowPosition;
-            int finalColumn = simpleMove.finalColumnPosition;
+            int initialSquare = BitBoard.squareOf(simpleMove.initialRowPosition, simpleMove.initialColumnPosition);
+            int finalSquare = BitBoard.squareOf(simpleMove.finalRowPosition, simpleMove.finalColumnPosition);
             //Finding the square jumped over
-            int midRow = (initialRow + finalRow) / 2;
-            int midColumn = (initialColumn + finalColumn) / 2;
-
-            //Remove piece from the jumped over square
-            board[midRow][midColumn] = Piece.EMPTY;
-            //Move the jumping piece from initial square to the final square
-            board[finalRow][finalColumn] = board[initialRow][initialColumn];
-            //Remove the jumping piece from the initial square
-            board[initialRow][initialColumn] = Piece.EMPTY;
+            int jumpedSquare = BitBoard.squareOf((simpleMove.initialRowPosition + simpleMove.finalRowPosition) / 2,
+                    (simpleMove.initialColumnPosition + simpleMove.finalColumnPosition) / 2);
+            makeOneJump(initialSquare, jumpedSquare, finalSquare);
         }
 
-        //Find the final square of the piece after this jump move
-        int finalColumn = jumpMove.jumps.get(jumpMove.jumps.size()-1).finalColumnPosition;
-        int finalRow = jumpMove.jumps.get(jumpMove.jumps.size()-1).finalRowPosition;
-
-        //Upgrade the pawn to a king if it is on the final row
-        if(allianceToMove == Alliance.WHITE){   //For White Piece
-            if(finalRow == 0 && board[finalRow][finalColumn] == Piece.WHITE_PAWN )  //Checks if the piece is on final row and is a White pawn
-                board[finalRow][finalColumn] = Piece.WHITE_KING;    //Upgrade to White King
-        }else {                                 //For Black Piece
-            if (finalRow == 7 && board[finalRow][finalColumn] == Piece.BLACK_PAWN)  //Checks if the piece is on final row and is a Black pawn
-                board[finalRow][finalColumn] = Piece.BLACK_KING;    //Upgrade to Black King
-        }
+        //Find the final square of the piece after this jump move and upgrade the pawn to a king if it is on the final row
+        SimpleMove lastJump = jumpMove.jumps.get(jumpMove.jumps.size()-1);
+        promoteIfOnKingRow(BitBoard.squareOf(lastJump.finalRowPosition, lastJump.finalColumnPosition));
     }
 
     /***
@@ -634,23 +617,128 @@ public class CheckersBoard {
      * @param simpleMove The SimpleMove to be made
      */
     public void makeSimpleMove(SimpleMove simpleMove) {
-        //Copy the moving piece from the initial square to the final square
-        board[simpleMove.finalRowPosition][simpleMove.finalColumnPosition] = board[simpleMove.initialRowPosition][simpleMove.initialColumnPosition];
-        //Remove the moving piece from th initial square
-        board[simpleMove.initialRowPosition][simpleMove.initialColumnPosition] = Piece.EMPTY;
+        //Finding initial and final square for the piece
+        int initialSquare = BitBoard.squareOf(simpleMove.initialRowPosition, simpleMove.initialColumnPosition);
+        int finalSquare = BitBoard.squareOf(simpleMove.finalRowPosition, simpleMove.finalColumnPosition);
 
-        //Finding final square for the piece
-        int finalRow = simpleMove.finalRowPosition;
-        int finalColumn = simpleMove.finalColumnPosition;
+        //Move the piece from the initial square to the final square
+        movePiece(initialSquare, finalSquare);
 
         //Upgrade to king if the piece is a pawn and on the final row
-        if(allianceToMove == Alliance.WHITE){   //For White Piece
-            if(finalRow == 0 && board[finalRow][finalColumn] == Piece.WHITE_PAWN )  //Checks if the piece is on final row and is a White pawn
-                board[finalRow][finalColumn] = Piece.WHITE_KING;    //Upgrade to White King
-        }else {                                 //For Black Piece
-            if (finalRow == 7 && board[finalRow][finalColumn] == Piece.BLACK_PAWN)  //Checks if the piece is on final row and is a Black pawn
-                board[finalRow][finalColumn] = Piece.BLACK_KING;    //Upgrade to Black King
-        }
+        promoteIfOnKingRow(finalSquare);
+    }
+
+    /***
+     * Upgrades the pawn of the alliance to move present at the given square to a king if the square is on its final row
+     * @param square The square of the piece that has just moved
+     */
+    private void promoteIfOnKingRow(int square){
+        int bit = 1 << square;
+        int ownPieces = allianceToMove == Alliance.WHITE ? whitePieces : blackPieces;
+        if((ownPieces & bit & BitBoard.kingRow(allianceToMove)) != 0)
+            promotePiece(square);
+    }
+
+    /***
+     * Upgrades the pawn present at the given square to a king, a king is left as it is
+     * @param square The square of the pawn
+     */
+    private void promotePiece(int square){
+        int bit = 1 << square;
+        if((kings & bit) != 0)
+            return;
+        boolean isWhite = (whitePieces & bit) != 0;
+        zobristKey ^= Zobrist.pieceKey(isWhite, false, square) ^ Zobrist.pieceKey(isWhite, true, square);
+        kings |= bit;
+    }
+
+    /***
+     * Moves the piece present at the initial square to the final square, keeping its alliance and whether it is a king
+     * @param initialSquare The square of the piece before the move
+     * @param finalSquare The square of the piece after the move
+     */
+    private void movePiece(int initialSquare, int finalSquare){
+        int initialBit = 1 << initialSquare;
+        int fromToBits = initialBit | (1 << finalSquare);
+        boolean isWhite = (whitePieces & initialBit) != 0;
+        boolean isKing = (kings & initialBit) != 0;
+        if(isWhite)
+            whitePieces ^= fromToBits;
+        else if((blackPieces & initialBit) != 0)
+            blackPieces ^= fromToBits;
+        else
+            return;     //No piece to move
+        if(isKing)
+            kings ^= fromToBits;
+        zobristKey ^= Zobrist.pieceKey(isWhite, isKing, initialSquare) ^ Zobrist.pieceKey(isWhite, isKing, finalSquare);
+    }
+
+    /***
+     * Removes the piece present at the given square, if any
+     * @param square The square to be made empty
+     */
+    private void removePiece(int square){
+        int bit = 1 << square;
+        if(((whitePieces | blackPieces) & bit) != 0)
+            zobristKey ^= Zobrist.pieceKey((whitePieces & bit) != 0, (kings & bit) != 0, square);
+        whitePieces &= ~bit;
+        blackPieces &= ~bit;
+        kings &= ~bit;
+    }
+
+    /***
+     * Computes the Zobrist key of the current board position from scratch and tells the listener, used when the position is set up directly
+     */
+    private void recomputeZobristKey(){
+        zobristKey = Zobrist.keyOf(whitePieces, blackPieces, kings, allianceToMove);
+        if(boardListener != null)
+            boardListener.positionSet(this);
+    }
+
+    /***
+     * @param square A square on the board
+     * @return True if the square is on the row where the pawns of the alliance to move are upgraded to kings
+     */
+    private boolean isOnKingRow(int square){
+        return (BitBoard.kingRow(allianceToMove) & (1 << square)) != 0;
+    }
+
+    /***
+     * @return Mask of the squares not occupied by any piece
+     */
+    private int getEmptySquares(){
+        return ~(whitePieces | blackPieces);
+    }
+
+    /***
+     * @param direction One of the directions defined in BitBoard
+     * @return Mask of the pieces of the alliance to move which are allowed to move in the given direction
+     */
+    private int getPiecesMovingIn(int direction){
+        int ownPieces = allianceToMove == Alliance.WHITE ? whitePieces : blackPieces;
+        return BitBoard.isForward(allianceToMove, direction) ? ownPieces : ownPieces & kings;
+    }
+
+    /***
+     * Two board positions are equal if they have the same pieces on the same squares and the same alliance to move,
+     * the plyCount and the moves that can be unmade are not part of the position
+     * @param object The object to be compared with this board position
+     * @return True if the object is an equal board position
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object)
+            return true;
+        if (!(object instanceof CheckersBoard))
+            return false;
+        CheckersBoard other = (CheckersBoard) object;
+        return whitePieces == other.whitePieces && blackPieces == other.blackPieces && kings == other.kings
+                && allianceToMove == other.allianceToMove;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (zobristKey ^ (zobristKey >>> 32));
     }
 
     /***
@@ -662,7 +750,7 @@ public class CheckersBoard {
         for (int i = 0; i < 8; i++) {
             for (int j = 0; j < 8; j++) {
                 if ((i + j) % 2 != 0)   //Pieces are present only on the squares where sum of row and column indices is odd.
-                    System.out.print(board[i][j]+" "); //Print out the piece at this square, toString() of the corresponding Piece is called
+                    System.out.print(getPieceAt(i, j)+" "); //Print out the piece at this square, toString() of the corresponding Piece is called
                 else
                     System.out.print("- ");  //For unused squares print a hyphen
             }
@@ -6,8 +6,8 @@ import Players.Player;
  * Game class represents a Game of checkers where two Players play against each other
  * Member Variables:
  *              checkersBoard - The current board position in the game
- *              player1 - The first Player, who takes White alliance
- *              player2 - The second Player, who takes Black alliance
+ *              player1 - The Player of the game which takes White alliance, as returned by startGame() of the first Player
+ *              player2 - The Player of the game which takes Black alliance, as returned by startGame() of the second Player
  *              playerTomove - The Player whose move it is in the current board position
  */
 public class Game {
@@ -24,17 +24,14 @@ public class Game {
      * @param player2 Second Player who takes Black
      */
     public Game(Player player1, Player player2){
-        //Set player1 and player2 to player1 and player2 respectively
-        this.player1 = player1;
-        this.player2 = player2;
-        //Set the alliance of player1 to White and player2 to Black
-        player1.setAlliance(Alliance.WHITE);
-        player2.setAlliance(Alliance.BLACK);
+        //Get the Players of this game from player1 as White and player2 as Black, they may be shared with other games
+        this.player1 = player1.startGame(Alliance.WHITE);
+        this.player2 = player2.startGame(Alliance.BLACK);
         //Create a new CheckersBoard and set to initial board position
         checkersBoard = new CheckersBoard();
         checkersBoard.setInitialBoardPosition();
         //Set player to move to the player1
-        playerToMove = player1;
+        playerToMove = this.player1;
     }
 
     /***
@@ -45,16 +42,13 @@ public class Game {
      * @param checkersBoard The given CheckersBoard position
      */
     public Game(Player player1, Player player2, CheckersBoard checkersBoard){
-        //Set player1 and player2 to player1 and player2 respectively
-        this.player1 = player1;
-        this.player2 = player2;
-        //Set the alliance of player1 to White and player2 to Black
-        player1.setAlliance(Alliance.WHITE);
-        player2.setAlliance(Alliance.BLACK);
+        //Get the Players of this game from player1 as White and player2 as Black, they may be shared with other games
+        this.player1 = player1.startGame(Alliance.WHITE);
+        this.player2 = player2.startGame(Alliance.BLACK);
         //Set the checkersboard position to the given checkersboard position
         this.checkersBoard = checkersBoard;
         //Set the playerToMove to the player whose alliance is to make the next move according to the given board position
-        this.playerToMove = (checkersBoard.getAllianceToMove()== Alliance.WHITE)? player1 : player2;
+        this.playerToMove = (checkersBoard.getAllianceToMove()== Alliance.WHITE)? this.player1 : this.player2;
     }
 
     /***
@@ -68,7 +62,7 @@ public class Game {
             Move nextMove = playerToMove.bestMove(checkersBoard.clone());
             //Game ends in loss for the player to move if he has no possible moves to make, So check fro this condition
             if (nextMove==null){    //Condition to check if the player to move had no possible move
-                if(playerToMove.getAlliance()== Alliance.WHITE) //Condition to check if the alliance of the payer to move was White
+                if(checkersBoard.getAllianceToMove()== Alliance.WHITE) //Condition to check if the alliance of the payer to move was White
                     return GameResult.LOST;     //As White has lost, return LOST as GameResult
                 else                                            //If the alliance of the player to move was Black
                     return GameResult.WON;      //As Black has lost, return WON as GameResult as White has won
@@ -98,7 +92,7 @@ public class Game {
                 System.out.println("********JumpMove has been made*********");
             //Game ends in loss for the player to move if he has no possible moves to make, So check fro this condition
             if (nextMove==null){    //Condition to check if the player to move had no possible move
-                if(playerToMove.getAlliance()== Alliance.WHITE) //Condition to check if the alliance of the payer to move was White
+                if(checkersBoard.getAllianceToMove()== Alliance.WHITE) //Condition to check if the alliance of the payer to move was White
                     return GameResult.LOST;     //As White has lost, return LOST as GameResult
                 else                                            //If the alliance of the player to move was Black
                     return GameResult.WON;      //As Black has lost, return WON as GameResult as White has won
@@ -0,0 +1,72 @@
+package Checkers;
+
+import java.util.Arrays;
+
+/***
+ * MoveBuffer class is a reusable list of moves stored in a long array instead of as Move objects.
+ * Each move is encoded as described in the PackedMove class.
+ * The move generators of CheckersBoard append to a MoveBuffer supplied by the caller, so that a search can keep one buffer
+ * per ply and generate moves without allocating anything once the array has grown large enough.
+ */
+public final class MoveBuffer {
+    private static final int defaultCapacity = 32;
+
+    private long[] moves;
+    private int size;
+
+    /***
+     * Default constructor creates a buffer with room for 32 moves, it grows when more moves are added
+     */
+    public MoveBuffer(){
+        this(defaultCapacity);
+    }
+
+    /***
+     * Parametrized constructor creates a buffer with room for the given number of moves, it grows when more moves are added
+     * @param capacity The initial number of moves the buffer can hold
+     */
+    public MoveBuffer(int capacity){
+        moves = new long[Math.max(1, capacity)];
+    }
+
+    /***
+     * Removes all the moves from the buffer, the array is kept for reuse
+     */
+    public void clear(){
+        size = 0;
+    }
+
+    /***
+     * @return The number of moves in the buffer
+     */
+    public int size(){
+        return size;
+    }
+
+    /***
+     * @param index Index of the move in the buffer
+     * @return The packed move at the given index
+     */
+    public long get(int index){
+        return moves[index];
+    }
+
+    /***
+     * Replaces the move at the given index, used to reorder the moves in the buffer
+     * @param index Index of the move in the buffer
+     * @param move The packed move to be stored at the index
+     */
+    public void set(int index, long move){
+        moves[index] = move;
+    }
+
+    /***
+     * Appends a move to the buffer, growing the array if it is full
+     * @param move The packed move to be added
+     */
+    public void add(long move){
+        if(size == moves.length)
+            moves = Arrays.copyOf(moves, 2*moves.length);
+        moves[size++] = move;
+    }
+}
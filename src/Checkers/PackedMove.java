@@ -0,0 +1,81 @@
+package Checkers;
+
+/***
+ * PackedMove class defines the primitive encoding of a move used by the search, so that moves can be kept in long arrays
+ * and tables without creating SimpleMove and JumpMove objects.
+ * A packed move is a long with the following bits:
+ *              0 to 31  - mask of the squares of the captured pieces, 0 for a simple move
+ *              32 to 36 - the square of the moving piece before the move
+ *              37 to 41 - the square of the moving piece after the move
+ *              42       - set if the moving pawn is upgraded to a king by the move
+ * The squares are numbered as described in the BitBoard class.
+ * No legal move is encoded as 0, so 0 is used to represent the absence of a move.
+ * CheckersBoard converts between packed moves and Move objects with toPackedMove() and toMove().
+ */
+public final class PackedMove {
+    public static final long NONE = 0L;
+
+    private static final int initialSquareShift = 32;
+    private static final int finalSquareShift = 37;
+    private static final long promotionFlag = 1L << 42;
+
+    private PackedMove(){
+
+    }
+
+    /***
+     * Creates a packed move from its parts
+     * @param initialSquare The square of the moving piece before the move
+     * @param finalSquare The square of the moving piece after the move
+     * @param capturedPieces Mask of the captured pieces, 0 for a simple move
+     * @param isPromotion Whether the moving pawn is upgraded to a king by the move
+     * @return The packed move
+     */
+    public static long of(int initialSquare, int finalSquare, int capturedPieces, boolean isPromotion){
+        return (capturedPieces & 0xFFFFFFFFL)
+                | ((long) initialSquare << initialSquareShift)
+                | ((long) finalSquare << finalSquareShift)
+                | (isPromotion ? promotionFlag : 0L);
+    }
+
+    public static int getInitialSquare(long move){
+        return (int) (move >>> initialSquareShift) & 31;
+    }
+
+    public static int getFinalSquare(long move){
+        return (int) (move >>> finalSquareShift) & 31;
+    }
+
+    public static int getCapturedPieces(long move){
+        return (int) move;
+    }
+
+    public static boolean isPromotion(long move){
+        return (move & promotionFlag) != 0;
+    }
+
+    public static boolean isJumpMove(long move){
+        return (int) move != 0;
+    }
+
+    /***
+     * @param move The packed move
+     * @return The number of pieces captured by the move, 0 for a simple move
+     */
+    public static int getCaptureCount(long move){
+        return Integer.bitCount((int) move);
+    }
+
+    /***
+     * @param move The packed move
+     * @return The move written as its squares in row-column notation, e.g. "52-43" or "52x34x16"
+     */
+    public static String toString(long move){
+        int initialSquare = getInitialSquare(move);
+        int finalSquare = getFinalSquare(move);
+        return "" + BitBoard.rowOf(initialSquare) + BitBoard.columnOf(initialSquare)
+                + (isJumpMove(move) ? "x" : "-")
+                + BitBoard.rowOf(finalSquare) + BitBoard.columnOf(finalSquare)
+                + (isPromotion(move) ? "K" : "");
+    }
+}
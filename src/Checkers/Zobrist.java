@@ -0,0 +1,65 @@
+package Checkers;
+
+import java.util.SplittableRandom;
+
+/***
+ * Zobrist class holds the random keys used to compute the 64-bit Zobrist key of a board position.
+ * The key of a position is the XOR of the keys of each piece on its square, and of the side key when Black is to move.
+ * As XOR is its own inverse, CheckersBoard updates the key of a position incrementally when a piece moves, is captured or is upgraded to a king.
+ * The keys are generated from a fixed seed, so the key of a position is the same in every run of the program.
+ */
+public final class Zobrist {
+    private static final long seed = 0x5DEECE66DL;
+
+    //pieceKeys[pieceIndex*32 + square], the pieceIndex is 0 for White Pawn, 1 for White King, 2 for Black Pawn and 3 for Black King
+    private static final long[] pieceKeys = new long[4*32];
+    private static final long blackToMoveKey;
+
+    static {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < pieceKeys.length; i++) {
+            pieceKeys[i] = random.nextLong();
+        }
+        blackToMoveKey = random.nextLong();
+    }
+
+    private Zobrist(){
+
+    }
+
+    /***
+     * @param isWhite Whether the piece is a White piece
+     * @param isKing Whether the piece is a king
+     * @param square The square of the piece
+     * @return The key of the given piece on the given square
+     */
+    public static long pieceKey(boolean isWhite, boolean isKing, int square){
+        return pieceKeys[((isWhite ? 0 : 2) + (isKing ? 1 : 0))*32 + square];
+    }
+
+    /***
+     * @return The key which is included in the key of a position when Black is to move
+     */
+    public static long blackToMoveKey(){
+        return blackToMoveKey;
+    }
+
+    /***
+     * Computes the key of a position from scratch
+     * @param whitePieces Mask of the White pieces
+     * @param blackPieces Mask of the Black pieces
+     * @param kings Mask of the kings
+     * @param allianceToMove The alliance to move in the position
+     * @return The Zobrist key of the position
+     */
+    public static long keyOf(int whitePieces, int blackPieces, int kings, Alliance allianceToMove){
+        long key = allianceToMove == Alliance.BLACK ? blackToMoveKey : 0L;
+        int pieces = whitePieces | blackPieces;
+        while (pieces != 0) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            key ^= pieceKey((whitePieces & (1 << square)) != 0, (kings & (1 << square)) != 0, square);
+        }
+        return key;
+    }
+}
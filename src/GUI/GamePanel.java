@@ -185,7 +185,7 @@ public class GamePanel extends JPanel{
         }
 
         void assignTilePiece() {
-            Piece piece = gameStack.peek().getBoard()[row][column];
+            Piece piece = gameStack.peek().getPieceAt(row, column);
             if(piece==null)
                 return;
             BufferedImage image = null;
@@ -4,19 +4,43 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 public abstract class GeneticAlgorithm implements Serializable{
+    private static final long serialVersionUID = 7250547870880041962L;     //Kept fixed so that the saved genetic algorithms in src/Data can still be read
+
     ArrayList<Individual> population;
     private int generationCount;
     protected final int individualCount;
     private final int maxNumberOfGenerations;
     int matchesPerTournament;
+    private transient TournamentScheduler tournamentScheduler;      //The scheduler playing the games of the tournaments, the shared one if null
+    private Long seed;      //The seed of the random streams of the generations, null until it is set or first needed
+
+    //The random streams drawn by each generation, derived from the seed and the generation
+    private static final int offspringStream = 0;
+    protected static final int tournamentStream = 1;
+    private static final int initialPopulationStream = 2;
 
     protected GeneticAlgorithm(int individualCount, int maxNumberOfGenerations, int depth, int nodeCountHiddenLayer1, int nodeCountHiddenLayer2, int matchesPerTournament){
+        this(individualCount, maxNumberOfGenerations, depth, nodeCountHiddenLayer1, nodeCountHiddenLayer2, matchesPerTournament, new SplittableRandom().nextLong());
+    }
+
+    /***
+     * Creates a genetic algorithm whose initial population, offspring and tournaments are all drawn from random streams derived from the given seed,
+     * so that two runs with the same seed give the same generations whatever the number of threads playing the games
+     * @param seed The seed from which the random streams of each generation are derived
+     */
+    protected GeneticAlgorithm(int individualCount, int maxNumberOfGenerations, int depth, int nodeCountHiddenLayer1, int nodeCountHiddenLayer2, int matchesPerTournament, long seed){
         this.individualCount = individualCount;
         this.maxNumberOfGenerations = maxNumberOfGenerations;
         this.matchesPerTournament = matchesPerTournament;
+        this.seed = seed;
         generationCount=1;
         initializeWithRandomIndividuals(depth, nodeCountHiddenLayer1, nodeCountHiddenLayer2);
     }
@@ -27,18 +51,79 @@ public abstract class GeneticAlgorithm implements Serializable{
         this.generationCount = geneticAlgorithm.generationCount;
         this.population = geneticAlgorithm.population;
         this.matchesPerTournament = geneticAlgorithm.matchesPerTournament;
+        this.seed = geneticAlgorithm.seed;
     }
 
     public ArrayList<Individual> getPopulation() {
         return population;
     }
 
+    /***
+     * @return The scheduler playing the games of the tournaments, the shared TournamentScheduler unless another one was set
+     */
+    public TournamentScheduler getTournamentScheduler() {
+        return tournamentScheduler == null ? TournamentScheduler.getShared() : tournamentScheduler;
+    }
+
+    /***
+     * @param tournamentScheduler The scheduler to play the games of the tournaments, null for the shared TournamentScheduler
+     */
+    public void setTournamentScheduler(TournamentScheduler tournamentScheduler) {
+        this.tournamentScheduler = tournamentScheduler;
+    }
+
+    /***
+     * Getter method for the seed member field, a random seed is chosen the first time it is needed if none was set
+     * @return The seed from which the random streams of each generation are derived
+     */
+    public synchronized long getSeed() {
+        if(seed == null)
+            seed = new SplittableRandom().nextLong();
+        return seed;
+    }
+
+    /***
+     * Setter method for the seed member field
+     * @param seed The seed from which the random streams of each generation are derived, the same seed gives the same offspring and tournaments
+     */
+    public synchronized void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /***
+     * Creates the generator of a random stream of the current generation, which depends only on the seed, the generation and the stream
+     * @param stream The index of the stream within the generation
+     * @return A new SplittableRandom
+     */
+    protected SplittableRandom createRandom(int stream) {
+        return new SplittableRandom(mix64(getSeed() ^ mix64(((long) generationCount << 8) + stream)));
+    }
+
+    /***
+     * Scrambles the bits of a value, so that close values give seeds of unrelated streams
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /***
+     * Runs the generations which are left, each of which plays a tournament between the individuals and replaces the weakest of them
+     * The searches of the individuals are made deterministic for the time of the run, so that a run from the same seed always ends
+     * with the same population. This costs speed: each game starts with an empty TranspositionTable instead of sharing the table
+     * of the player, and an entry is only used at the depth it was searched to, so the tournaments take roughly 10 to 20 percent longer.
+     * The searches are made non-deterministic again once the run is over, so the saved individuals do not keep the setting.
+     */
     public void start(){
         while(generationCount<=maxNumberOfGenerations){
             System.out.println("Generation : " +generationCount);
             populateWithNewIndividuals();
 
-            playTournament();
+            makeSearchesDeterministic(true);
+
+            TournamentStatistics tournamentStatistics = playTournament();
+            System.out.println(tournamentStatistics);
 
             sortIndividuals();
 
@@ -50,31 +135,53 @@ public abstract class GeneticAlgorithm implements Serializable{
 
             generationCount++;
         }
+        makeSearchesDeterministic(false);
     }
 
     private void showPopulationDetails(){
         for(Individual individual: population){
-            System.out.println(individual.toString());
+            System.out.println(individual.getMatchRecord().toString());
         }
     }
 
     private void initializeWithRandomIndividuals(int depth, int nodeCountHiddenLayer1, int nodeCountHiddenLayer2){
         this.population = new ArrayList<Individual>();
+        SplittableRandom random = createRandom(initialPopulationStream);
         for (int i = 0; i < individualCount; i++) {
-            population.add(new Individual(depth, nodeCountHiddenLayer1, nodeCountHiddenLayer2));
+            population.add(new Individual(depth, nodeCountHiddenLayer1, nodeCountHiddenLayer2, random.split()));
         }
     }
 
-    protected abstract void playTournament();
+    /***
+     * Makes the searches of all the individuals deterministic or not. When they are, the result of each game of the tournament depends
+     * only on the two individuals and the random stream of the game, and not on the games played at the same time or on the earlier ones
+     * @param isDeterministic Whether the searches are to be deterministic
+     */
+    private void makeSearchesDeterministic(boolean isDeterministic){
+        for(Individual individual: population)
+            individual.getPlayer().setDeterministic(isDeterministic);
+    }
+
+    /***
+     * Plays the games of a generation on the TournamentScheduler, recording their results in the individuals
+     * @return The counters of the games played
+     */
+    protected abstract TournamentStatistics playTournament();
 
     private void sortIndividuals(){
+        //Take a snapshot of the records first, so that the order compared by the sort does not change while it runs
+        Map<Individual, Individual.MatchRecord> matchRecords = new IdentityHashMap<>();
+        for(Individual individual: population)
+            matchRecords.put(individual, individual.getMatchRecord());
         Collections.sort(population, new Comparator<Individual>() {
             @Override
             public int compare(Individual o1, Individual o2) {
-                int o1TotalScore = (int)(o1.getAverageTotalScore()*1000);
-                int o2TotalScore = (int)(o2.getAverageTotalScore()*1000);
+                Individual.MatchRecord o1Record = matchRecords.get(o1);
+                Individual.MatchRecord o2Record = matchRecords.get(o2);
+                int o1TotalScore = (int)(o1Record.getAverageTotalScore()*1000);
+                int o2TotalScore = (int)(o2Record.getAverageTotalScore()*1000);
                 if(o1TotalScore == o2TotalScore)
-                    return o2.getRoundScore() - o2.getRoundScore();
+                    return o2Record.getRoundScore() - o1Record.getRoundScore();
                 return o2TotalScore-o1TotalScore;
             }
         });
@@ -87,12 +194,25 @@ public abstract class GeneticAlgorithm implements Serializable{
     }
 
     private void populateWithNewIndividuals(){
-        //Random random = new Random();
-        for (int i = 0; i < individualCount; i++) {
-            Individual parent = population.get(i);
-            //double randomValue = random.nextDouble();
-            population.add(new Individual(parent, false));
+        Collections.addAll(population, createOffspring(population.subList(0, individualCount), createRandom(offspringStream)));
+    }
+
+    /***
+     * Creates an offspring of each of the given parents, the offspring being created at the same time by the threads of the common ForkJoinPool
+     * The generator of each offspring is split from the given one in the order of the parents before any offspring is created,
+     * so the offspring depend only on the parents and the state of the generator, and not on the threads
+     * @param parents The parent individuals
+     * @param random The generator from which the generators of the offspring are split
+     * @return The offspring, in the order of their parents
+     */
+    public static Individual[] createOffspring(List<Individual> parents, SplittableRandom random){
+        SplittableRandom[] offspringRandoms = new SplittableRandom[parents.size()];
+        for (int i = 0; i < offspringRandoms.length; i++) {
+            offspringRandoms[i] = random.split();
         }
+        Individual[] offspring = new Individual[parents.size()];
+        IntStream.range(0, offspring.length).parallel().forEach(i -> offspring[i] = new Individual(parents.get(i), false, offspringRandoms[i]));
+        return offspring;
     }
 
     private void resetRoundScores(){
@@ -6,92 +6,61 @@ import Checkers.GameResult;
 import Players.RandomPlayer;
 
 import java.util.Random;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 public class GeneticAlgorithmPlayingNeuralNet extends GeneticAlgorithm{
+    private static final long serialVersionUID = 4733082807101974265L;     //Kept fixed so that the saved genetic algorithms in src/Data can still be read
+
+    private PairingStrategy pairingStrategy;     //The strategy choosing who plays whom in the tournaments, null in the genetic algorithms saved before it was added
 
     public GeneticAlgorithmPlayingNeuralNet(int individualCount, int maxNumberOfGenerations, int depth, int nodeCountHiddenLayer1, int nodeCountHiddenLayer2, int matchesPerTournament) {
         super(individualCount, maxNumberOfGenerations, depth, nodeCountHiddenLayer1, nodeCountHiddenLayer2, matchesPerTournament);
     }
 
+    public GeneticAlgorithmPlayingNeuralNet(int individualCount, int maxNumberOfGenerations, int depth, int nodeCountHiddenLayer1, int nodeCountHiddenLayer2, int matchesPerTournament, long seed) {
+        super(individualCount, maxNumberOfGenerations, depth, nodeCountHiddenLayer1, nodeCountHiddenLayer2, matchesPerTournament, seed);
+    }
+
     public GeneticAlgorithmPlayingNeuralNet(GeneticAlgorithm geneticAlgorithm, int moreGenerations) {
         super(geneticAlgorithm, moreGenerations);
+        if(geneticAlgorithm instanceof GeneticAlgorithmPlayingNeuralNet)
+            this.pairingStrategy = ((GeneticAlgorithmPlayingNeuralNet) geneticAlgorithm).pairingStrategy;
     }
 
-    @Override
-    protected void playTournament() {
-        Random random  = new Random();
-        ExecutorService executorService = Executors.newFixedThreadPool(2*individualCount*(2*individualCount-1));
-        for(Individual individual: population){
-            /*for(Individual other: population){
-                if(other != individual){
-                    executorService.execute(new GameRunnable(individual,other));
-                }
-            }*/
-            int matchCounter = 0;
-            while(matchCounter<matchesPerTournament){
-                int randomIndividualIndex = random.nextInt(individualCount*2);
-                Individual other = population.get(randomIndividualIndex);
-                if(other == individual)
-                    continue;
-                executorService.execute(new GameRunnable(individual, other));
-                matchCounter++;
-            }
-            /*for (int i = 0; i < matchesPerTournament; i++) {
-                if(i<matchesPerTournament/2)
-                    executorService.execute(new GameWithRandomPlayerRunnable(individual, Alliance.BLACK));
-                else
-                    executorService.execute(new GameWithRandomPlayerRunnable(individual, Alliance.WHITE));
-            }*/
-        }
-        executorService.shutdown();
-        try {
-            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+    /***
+     * Getter method for the pairingStrategy member field
+     * @return The strategy choosing who plays whom in the tournaments, RANDOM unless another one was set
+     */
+    public PairingStrategy getPairingStrategy() {
+        return pairingStrategy == null ? PairingStrategy.RANDOM : pairingStrategy;
     }
 
-    static class GameRunnable implements Runnable{
-        Individual individual, otherIndividual;
-
-        static int endCount = 0, startCount=0;
+    /***
+     * Setter method for the pairingStrategy member field
+     * @param pairingStrategy The strategy choosing who plays whom in the tournaments
+     */
+    public void setPairingStrategy(PairingStrategy pairingStrategy) {
+        this.pairingStrategy = pairingStrategy;
+    }
 
-        public GameRunnable(Individual individual, Individual otherIndividual){
-            this.individual = individual;
-            this.otherIndividual = otherIndividual;
-        }
-        @Override
-        public void run() {
-            Game game = new Game(individual.getPlayer(), otherIndividual.getPlayer());
-            //System.out.println("started:"+ ++startCount);
-            GameResult matchResult = game.start();
-            if(matchResult == GameResult.WON){
-                individual.updateRecordsForMatchWon();
-                otherIndividual.updateRecordsForMatchLost();
-            }else if(matchResult == GameResult.LOST){
-                individual.updateRecordsForMatchLost();
-                otherIndividual.updateRecordsForMatchWon();
-            }else if(matchResult == GameResult.DRAWN){
-                individual.updateRecordsForMatchDrawn();
-                otherIndividual.updateRecordsForMatchDrawn();
-            }
-            //System.out.println("complete: "+ ++endCount);
-        }
+    @Override
+    protected TournamentStatistics playTournament() {
+        //The pairings are drawn from the tournament stream of the generation, so the same seed gives the same pairings
+        Random random  = new Random(createRandom(tournamentStream).nextLong());
+        return getTournamentScheduler().playTournament(population, getPairingStrategy(), matchesPerTournament, random);
     }
 
     static class GameWithRandomPlayerRunnable implements Runnable{
-        private static final RandomPlayer randomPlayer= new RandomPlayer();
         Individual individual;
         Alliance alliance;
-        public GameWithRandomPlayerRunnable(Individual individual, Alliance alliance){
+        long seed;      //The seed of the RandomPlayer of the game
+        public GameWithRandomPlayerRunnable(Individual individual, Alliance alliance, long seed){
             this.individual = individual;
             this.alliance = alliance;
+            this.seed = seed;
         }
         @Override
         public void run() {
+            RandomPlayer randomPlayer = new RandomPlayer(seed);
             if(alliance == Alliance.WHITE){
                 Game game = new Game(individual.getPlayer(), randomPlayer);
                 GameResult matchResult = game.start();
@@ -5,47 +5,51 @@ import Checkers.Game;
 import Checkers.GameResult;
 import Players.RandomPlayer;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
 
 public class GeneticAlgorithmPlayingRandomPlayer extends GeneticAlgorithm {
+    private static final long serialVersionUID = 834597367177550451L;      //Kept fixed so that saved genetic algorithms can still be read
 
     public GeneticAlgorithmPlayingRandomPlayer(int individualCount, int maxNumberOfGenerations, int depth, int nodeCountHiddenLayer1, int nodeCountHiddenLayer2, int matchesPerTournament){
         super(individualCount, maxNumberOfGenerations, depth, nodeCountHiddenLayer1, nodeCountHiddenLayer2, matchesPerTournament);
     }
 
+    public GeneticAlgorithmPlayingRandomPlayer(int individualCount, int maxNumberOfGenerations, int depth, int nodeCountHiddenLayer1, int nodeCountHiddenLayer2, int matchesPerTournament, long seed){
+        super(individualCount, maxNumberOfGenerations, depth, nodeCountHiddenLayer1, nodeCountHiddenLayer2, matchesPerTournament, seed);
+    }
+
     public GeneticAlgorithmPlayingRandomPlayer(GeneticAlgorithm geneticAlgorithm, int moreGenerations){
         super(geneticAlgorithm, moreGenerations);
     }
 
     @Override
-    protected void playTournament(){
-        ExecutorService executorService = Executors.newFixedThreadPool(individualCount*matchesPerTournament);
+    protected TournamentStatistics playTournament(){
+        //Each game gets a RandomPlayer of its own, seeded from the tournament stream of the generation in the order the games are created
+        SplittableRandom random = createRandom(tournamentStream);
+        List<GameWithRandomPlayerRunnable> games = new ArrayList<>();
         for(Individual individual: population){
             for (int i = 0; i < matchesPerTournament/2; i++) {
-                executorService.execute(new GameWithRandomPlayerRunnable(individual, Alliance.WHITE));
-                executorService.execute(new GameWithRandomPlayerRunnable(individual, Alliance.BLACK));
+                games.add(new GameWithRandomPlayerRunnable(individual, Alliance.WHITE, random.nextLong()));
+                games.add(new GameWithRandomPlayerRunnable(individual, Alliance.BLACK, random.nextLong()));
             }
         }
-        executorService.shutdown();
-        try {
-            executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        return getTournamentScheduler().playGames(games);
     }
 
     static class GameWithRandomPlayerRunnable implements Runnable{
-        private static final RandomPlayer randomPlayer= new RandomPlayer();
         Individual individual;
         Alliance alliance;
-        public GameWithRandomPlayerRunnable(Individual individual, Alliance alliance){
+        long seed;      //The seed of the RandomPlayer of the game
+        public GameWithRandomPlayerRunnable(Individual individual, Alliance alliance, long seed){
             this.individual = individual;
             this.alliance = alliance;
+            this.seed = seed;
         }
         @Override
         public void run() {
+            RandomPlayer randomPlayer = new RandomPlayer(seed);
             if(alliance == Alliance.WHITE){
                 Game game = new Game(individual.getPlayer(), randomPlayer);
                 GameResult matchResult = game.start();
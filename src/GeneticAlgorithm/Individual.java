@@ -3,102 +3,270 @@ package GeneticAlgorithm;
 import Players.Evaluator.NeuralNetEvaluator;
 import Players.AlphaBetaPlayer;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+/***
+ * Individual is a member of the population of a genetic algorithm, an AlphaBetaPlayer with its record of matches
+ * The record of the current round is kept in a single AtomicLong holding the number of matches won, drawn and lost, so that the games
+ * of a tournament played at the same time update it without locks, and getMatchRecord() reads it at once as a consistent MatchRecord.
+ * The matches of the previous rounds are added to the total record when the round scores are reset, between the tournaments.
+ * The saved individuals keep the fields of the original record, given by serialPersistentFields.
+ * Member Variables:
+ *              player - The AlphaBetaPlayer of the individual
+ *              roundRecord - The numbers of matches won, drawn and lost in the current round, packed by MatchRecord
+ *              previousMatchesWon, previousMatchesDrawn, previousMatchesLost - The numbers of matches of the previous rounds
+ */
 public class Individual implements Serializable{
+    private static final long serialVersionUID = -4211825778469588462L;    //Kept fixed so that the saved genetic algorithms in src/Data can still be read
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("player", AlphaBetaPlayer.class),
+            new ObjectStreamField("roundMatchesPlayed", int.class),
+            new ObjectStreamField("roundMatchesWon", int.class),
+            new ObjectStreamField("roundMatchesLost", int.class),
+            new ObjectStreamField("roundMatchesDrawn", int.class),
+            new ObjectStreamField("totalMatchesPlayed", int.class),
+            new ObjectStreamField("totalMatchesWon", int.class),
+            new ObjectStreamField("totalMatchesLost", int.class),
+            new ObjectStreamField("totalMatchesDrawn", int.class)
+    };
+
     private AlphaBetaPlayer player;
-    private int roundMatchesPlayed, roundMatchesWon, roundMatchesLost, roundMatchesDrawn;
-    private int totalMatchesPlayed, totalMatchesWon, totalMatchesLost, totalMatchesDrawn;
+    private transient AtomicLong roundRecord = new AtomicLong();
+    private transient int previousMatchesWon, previousMatchesDrawn, previousMatchesLost;
 
     public Individual(int depth, int nodeCountHiddenLayer1,int nodeCountHiddenlayer2){
         player = new AlphaBetaPlayer(depth, new NeuralNetEvaluator(nodeCountHiddenLayer1, nodeCountHiddenlayer2));
     }
 
+    /***
+     * Creates an individual whose neural network has random weights drawn from the given generator
+     * @param random The generator of the random weights, the same stream gives the same individual
+     */
+    public Individual(int depth, int nodeCountHiddenLayer1, int nodeCountHiddenlayer2, SplittableRandom random){
+        player = new AlphaBetaPlayer(depth, new NeuralNetEvaluator(nodeCountHiddenLayer1, nodeCountHiddenlayer2, random));
+    }
+
     public Individual(Individual individual, boolean isMutated){
         player = new AlphaBetaPlayer(individual.player.getDepth(), new NeuralNetEvaluator((NeuralNetEvaluator) individual.player.getEvaluator(), isMutated));
     }
 
+    /***
+     * Creates an offspring of the given individual whose neural network changes are drawn from the given generator
+     * @param individual The parent individual
+     * @param random The generator of the random changes, the same stream gives the same offspring
+     */
+    public Individual(Individual individual, boolean isMutated, SplittableRandom random){
+        player = new AlphaBetaPlayer(individual.player.getDepth(), new NeuralNetEvaluator((NeuralNetEvaluator) individual.player.getEvaluator(), isMutated, random));
+    }
+
     public AlphaBetaPlayer getPlayer() {
         return player;
     }
 
-    public synchronized void updateRecordsForMatchWon(){
-        roundMatchesPlayed++;
-        roundMatchesWon++;
-        totalMatchesPlayed++;
-        totalMatchesWon++;
+    public void updateRecordsForMatchWon(){
+        roundRecord.getAndAdd(MatchRecord.WON);
+    }
+
+    public void updateRecordsForMatchDrawn(){
+        roundRecord.getAndAdd(MatchRecord.DRAWN);
     }
 
-    public synchronized void updateRecordsForMatchDrawn(){
-        roundMatchesPlayed++;
-        roundMatchesDrawn++;
-        totalMatchesPlayed++;
-        totalMatchesDrawn++;
+    public void updateRecordsForMatchLost(){
+        roundRecord.getAndAdd(MatchRecord.LOST);
     }
 
-    public synchronized void updateRecordsForMatchLost(){
-        roundMatchesPlayed++;
-        roundMatchesLost++;
-        totalMatchesPlayed++;
-        totalMatchesLost++;
+    /***
+     * Adds the matches of the current round to the total record and starts a new round
+     * It is called between the tournaments, a match finished at the same time is counted in the new round
+     */
+    public synchronized void resetRoundScores(){
+        long record = roundRecord.getAndSet(0);
+        previousMatchesWon += MatchRecord.won(record);
+        previousMatchesDrawn += MatchRecord.drawn(record);
+        previousMatchesLost += MatchRecord.lost(record);
     }
 
-    public void resetRoundScores(){
-        roundMatchesPlayed = 0;
-        roundMatchesWon = 0;
-        roundMatchesDrawn = 0;
-        roundMatchesLost = 0;
+    /***
+     * @return The record of matches of this individual, the record of the current round being read at once
+     */
+    public synchronized MatchRecord getMatchRecord(){
+        return new MatchRecord(roundRecord.get(), previousMatchesWon, previousMatchesDrawn, previousMatchesLost);
     }
 
     public int getTotalScore(){
-        return totalMatchesWon - 2*totalMatchesLost;
+        return getMatchRecord().getTotalScore();
     }
 
     public double getAverageTotalScore(){
-        return  (double) this.getTotalScore()/totalMatchesPlayed;
+        return getMatchRecord().getAverageTotalScore();
     }
 
     public int getRoundScore(){
-        return roundMatchesWon  - 2*roundMatchesLost;
+        return getMatchRecord().getRoundScore();
     }
 
     public int getRoundMatchesPlayed() {
-        return roundMatchesPlayed;
+        return getMatchRecord().getRoundMatchesPlayed();
     }
 
     public int getRoundMatchesWon() {
-        return roundMatchesWon;
+        return getMatchRecord().getRoundMatchesWon();
     }
 
     public int getRoundMatchesLost() {
-        return roundMatchesLost;
+        return getMatchRecord().getRoundMatchesLost();
     }
 
     public int getRoundMatchesDrawn() {
-        return roundMatchesDrawn;
+        return getMatchRecord().getRoundMatchesDrawn();
     }
 
     public int getTotalMatchesPlayed() {
-        return totalMatchesPlayed;
+        return getMatchRecord().getTotalMatchesPlayed();
     }
 
     public int getTotalMatchesWon() {
-        return totalMatchesWon;
+        return getMatchRecord().getTotalMatchesWon();
     }
 
     public int getTotalMatchesLost() {
-        return totalMatchesLost;
+        return getMatchRecord().getTotalMatchesLost();
     }
 
     public int getTotalMatchesDrawn() {
-        return totalMatchesDrawn;
+        return getMatchRecord().getTotalMatchesDrawn();
     }
 
     @Override
     public String toString(){
-        StringBuilder details = new StringBuilder();
-        details.append("Total: "+totalMatchesPlayed+"-"+totalMatchesWon+" "+totalMatchesDrawn+" "+totalMatchesLost+"\n");
-        details.append("Round: "+roundMatchesPlayed+"-"+roundMatchesWon+" "+roundMatchesDrawn+" "+roundMatchesLost+"\n");
-        return  details.toString();
+        return getMatchRecord().toString();
+    }
+
+    private void writeObject(ObjectOutputStream objectOutputStream) throws IOException {
+        MatchRecord matchRecord = getMatchRecord();
+        ObjectOutputStream.PutField fields = objectOutputStream.putFields();
+        fields.put("player", player);
+        fields.put("roundMatchesPlayed", matchRecord.getRoundMatchesPlayed());
+        fields.put("roundMatchesWon", matchRecord.getRoundMatchesWon());
+        fields.put("roundMatchesLost", matchRecord.getRoundMatchesLost());
+        fields.put("roundMatchesDrawn", matchRecord.getRoundMatchesDrawn());
+        fields.put("totalMatchesPlayed", matchRecord.getTotalMatchesPlayed());
+        fields.put("totalMatchesWon", matchRecord.getTotalMatchesWon());
+        fields.put("totalMatchesLost", matchRecord.getTotalMatchesLost());
+        fields.put("totalMatchesDrawn", matchRecord.getTotalMatchesDrawn());
+        objectOutputStream.writeFields();
+    }
+
+    private void readObject(ObjectInputStream objectInputStream) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = objectInputStream.readFields();
+        player = (AlphaBetaPlayer) fields.get("player", null);
+        int roundMatchesWon = fields.get("roundMatchesWon", 0);
+        int roundMatchesDrawn = fields.get("roundMatchesDrawn", 0);
+        int roundMatchesLost = fields.get("roundMatchesLost", 0);
+        //The saved totals include the matches of the current round
+        previousMatchesWon = fields.get("totalMatchesWon", 0) - roundMatchesWon;
+        previousMatchesDrawn = fields.get("totalMatchesDrawn", 0) - roundMatchesDrawn;
+        previousMatchesLost = fields.get("totalMatchesLost", 0) - roundMatchesLost;
+        roundRecord = new AtomicLong(MatchRecord.pack(roundMatchesWon, roundMatchesDrawn, roundMatchesLost));
+    }
+
+    /***
+     * MatchRecord is a snapshot of the record of matches of an Individual, which does not change while it is used,
+     * as when the individuals are sorted
+     * The record of a round is packed in a long with 21 bits for each of the numbers of matches won, drawn and lost.
+     * Member Variables:
+     *              roundMatchesWon, roundMatchesDrawn, roundMatchesLost - The numbers of matches of the current round
+     *              totalMatchesWon, totalMatchesDrawn, totalMatchesLost - The numbers of matches of all the rounds, including the current one
+     */
+    public static final class MatchRecord {
+        private static final int countBits = 21;
+        private static final long countMask = (1L << countBits) - 1;
+        static final long WON = 1L, DRAWN = 1L << countBits, LOST = 1L << 2*countBits;
+
+        private final int roundMatchesWon, roundMatchesDrawn, roundMatchesLost;
+        private final int totalMatchesWon, totalMatchesDrawn, totalMatchesLost;
+
+        private MatchRecord(long roundRecord, int previousMatchesWon, int previousMatchesDrawn, int previousMatchesLost) {
+            roundMatchesWon = won(roundRecord);
+            roundMatchesDrawn = drawn(roundRecord);
+            roundMatchesLost = lost(roundRecord);
+            totalMatchesWon = previousMatchesWon + roundMatchesWon;
+            totalMatchesDrawn = previousMatchesDrawn + roundMatchesDrawn;
+            totalMatchesLost = previousMatchesLost + roundMatchesLost;
+        }
+
+        static long pack(int won, int drawn, int lost) {
+            return won*WON + drawn*DRAWN + lost*LOST;
+        }
+
+        static int won(long record) {
+            return (int) (record & countMask);
+        }
+
+        static int drawn(long record) {
+            return (int) ((record >>> countBits) & countMask);
+        }
+
+        static int lost(long record) {
+            return (int) ((record >>> 2*countBits) & countMask);
+        }
+
+        public int getTotalScore(){
+            return totalMatchesWon - 2*totalMatchesLost;
+        }
+
+        public double getAverageTotalScore(){
+            return  (double) this.getTotalScore()/getTotalMatchesPlayed();
+        }
+
+        public int getRoundScore(){
+            return roundMatchesWon  - 2*roundMatchesLost;
+        }
+
+        public int getRoundMatchesPlayed() {
+            return roundMatchesWon + roundMatchesDrawn + roundMatchesLost;
+        }
+
+        public int getRoundMatchesWon() {
+            return roundMatchesWon;
+        }
+
+        public int getRoundMatchesLost() {
+            return roundMatchesLost;
+        }
+
+        public int getRoundMatchesDrawn() {
+            return roundMatchesDrawn;
+        }
+
+        public int getTotalMatchesPlayed() {
+            return totalMatchesWon + totalMatchesDrawn + totalMatchesLost;
+        }
+
+        public int getTotalMatchesWon() {
+            return totalMatchesWon;
+        }
+
+        public int getTotalMatchesLost() {
+            return totalMatchesLost;
+        }
+
+        public int getTotalMatchesDrawn() {
+            return totalMatchesDrawn;
+        }
+
+        @Override
+        public String toString(){
+            StringBuilder details = new StringBuilder();
+            details.append("Total: "+getTotalMatchesPlayed()+"-"+totalMatchesWon+" "+totalMatchesDrawn+" "+totalMatchesLost+"\n");
+            details.append("Round: "+getRoundMatchesPlayed()+"-"+roundMatchesWon+" "+roundMatchesDrawn+" "+roundMatchesLost+"\n");
+            return  details.toString();
+        }
     }
 }
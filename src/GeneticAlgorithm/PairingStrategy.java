@@ -0,0 +1,154 @@
+package GeneticAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/***
+ * PairingStrategy decides which individuals of the population play each other in a tournament.
+ * A tournament is played in rounds. The games of a round are played at the same time, and the pairings of a round may depend on the
+ * results of the previous rounds.
+ *      ROUND_ROBIN - One round in which every individual plays every other individual twice, once with each alliance,
+ *                    whatever the number of matches per tournament
+ *      RANDOM - One round in which every individual plays the given number of matches as White against randomly chosen individuals
+ *      SWISS - As many rounds as the number of matches, in each of which the individuals are ranked by their round score and every
+ *              individual plays once against the next individual in the ranking it has not played yet, the alliances alternating
+ *              from a round to the next. With an odd number of individuals the last one in the ranking sits the round out.
+ */
+public enum PairingStrategy {
+    ROUND_ROBIN {
+        @Override
+        public int getRoundCount(int individualCount, int matchesPerTournament) {
+            return 1;
+        }
+
+        @Override
+        public List<Pairing> pairRound(List<Individual> population, int matchesPerTournament, int round, List<Pairing> previousPairings, Random random) {
+            List<Pairing> pairings = new ArrayList<>();
+            for(Individual individual: population){
+                for(Individual other: population){
+                    if(other != individual)
+                        pairings.add(new Pairing(individual, other));
+                }
+            }
+            return pairings;
+        }
+    },
+    RANDOM {
+        @Override
+        public int getRoundCount(int individualCount, int matchesPerTournament) {
+            return 1;
+        }
+
+        @Override
+        public List<Pairing> pairRound(List<Individual> population, int matchesPerTournament, int round, List<Pairing> previousPairings, Random random) {
+            List<Pairing> pairings = new ArrayList<>();
+            if(population.size() < 2)
+                return pairings;
+            for(Individual individual: population){
+                int matchCounter = 0;
+                while(matchCounter<matchesPerTournament){
+                    Individual other = population.get(random.nextInt(population.size()));
+                    if(other == individual)
+                        continue;
+                    pairings.add(new Pairing(individual, other));
+                    matchCounter++;
+                }
+            }
+            return pairings;
+        }
+    },
+    SWISS {
+        @Override
+        public int getRoundCount(int individualCount, int matchesPerTournament) {
+            return matchesPerTournament;
+        }
+
+        @Override
+        public List<Pairing> pairRound(List<Individual> population, int matchesPerTournament, int round, List<Pairing> previousPairings, Random random) {
+            //Rank the individuals by their score in the rounds played so far, the ties in a random order
+            List<Individual> ranking = new ArrayList<>(population);
+            Collections.shuffle(ranking, random);
+            ranking.sort(Comparator.comparingInt(Individual::getRoundScore).reversed());
+
+            List<Pairing> pairings = new ArrayList<>();
+            boolean[] isPaired = new boolean[ranking.size()];
+            for (int i = 0; i < ranking.size(); i++) {
+                if(isPaired[i])
+                    continue;
+                //Take the next unpaired individual in the ranking not met yet, or the next unpaired one if all of them were met
+                int opponent = -1;
+                for (int j = i+1; j < ranking.size(); j++) {
+                    if(isPaired[j])
+                        continue;
+                    if(opponent == -1)
+                        opponent = j;
+                    if(!hasMet(ranking.get(i), ranking.get(j), previousPairings)){
+                        opponent = j;
+                        break;
+                    }
+                }
+                if(opponent == -1)
+                    break;
+                isPaired[i] = true;
+                isPaired[opponent] = true;
+                if(round%2 == 0)
+                    pairings.add(new Pairing(ranking.get(i), ranking.get(opponent)));
+                else
+                    pairings.add(new Pairing(ranking.get(opponent), ranking.get(i)));
+            }
+            return pairings;
+        }
+
+        private boolean hasMet(Individual individual, Individual other, List<Pairing> previousPairings){
+            for(Pairing pairing: previousPairings){
+                if((pairing.getWhite() == individual && pairing.getBlack() == other) || (pairing.getWhite() == other && pairing.getBlack() == individual))
+                    return true;
+            }
+            return false;
+        }
+    };
+
+    /***
+     * @param individualCount The number of individuals in the tournament
+     * @param matchesPerTournament The number of matches each individual is to play
+     * @return The number of rounds of the tournament
+     */
+    public abstract int getRoundCount(int individualCount, int matchesPerTournament);
+
+    /***
+     * Finds the games of a round of the tournament
+     * @param population The individuals of the tournament, with the round scores of the rounds played so far
+     * @param matchesPerTournament The number of matches each individual is to play
+     * @param round The index of the round, from 0
+     * @param previousPairings The games of the previous rounds
+     * @param random The source of the random choices of the pairings
+     * @return The games of the round
+     */
+    public abstract List<Pairing> pairRound(List<Individual> population, int matchesPerTournament, int round, List<Pairing> previousPairings, Random random);
+
+    /***
+     * Pairing is a game of a tournament between two individuals
+     * Member Variables:
+     *              white - The individual playing White, who makes the first move
+     *              black - The individual playing Black
+     */
+    public static final class Pairing {
+        private final Individual white, black;
+
+        public Pairing(Individual white, Individual black) {
+            this.white = white;
+            this.black = black;
+        }
+
+        public Individual getWhite() {
+            return white;
+        }
+
+        public Individual getBlack() {
+            return black;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package GeneticAlgorithm;
+
+import Checkers.Game;
+import Checkers.GameResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/***
+ * TournamentScheduler plays the games of the tournaments of the genetic algorithms on a work stealing pool with one thread for each
+ * processor, instead of one thread for each game.
+ * The games waiting for a thread are bounded: once maximumQueuedGames games are waiting, the thread submitting more games waits
+ * until a game is started. The number of games waiting and the number of games played are kept as metrics.
+ * One scheduler is shared by all the genetic algorithms unless they are given another one, its threads are daemon threads
+ * which end with the program.
+ * Member Variables:
+ *              forkJoinPool - The pool of threads on which the games are played
+ *              queueSlots - The number of games which can still be submitted before the submitting thread waits
+ *              queuedGames - The number of games submitted which have not been started
+ *              gamesPlayed - The number of games played since the scheduler was created
+ */
+public class TournamentScheduler {
+    private static final int queuedGamesPerThread = 4;
+    private static volatile TournamentScheduler sharedScheduler;
+
+    private final ForkJoinPool forkJoinPool;
+    private final int maximumQueuedGames;
+    private final Semaphore queueSlots;
+    private final AtomicInteger queuedGames = new AtomicInteger();
+    private final AtomicLong gamesPlayed = new AtomicLong();
+
+    /***
+     * Default constructor creates a scheduler with one thread for each processor
+     */
+    public TournamentScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /***
+     * Parametrized constructor creates a scheduler with the given number of threads
+     * @param threadCount The number of games played at the same time
+     */
+    public TournamentScheduler(int threadCount) {
+        //The pool runs the games in the order they were submitted, as none of them creates more tasks
+        this.forkJoinPool = new ForkJoinPool(Math.max(1, threadCount), ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.maximumQueuedGames = queuedGamesPerThread*forkJoinPool.getParallelism();
+        this.queueSlots = new Semaphore(maximumQueuedGames);
+    }
+
+    /***
+     * @return The scheduler shared by the genetic algorithms which were not given one, created the first time it is needed
+     */
+    public static TournamentScheduler getShared() {
+        if(sharedScheduler == null){
+            synchronized (TournamentScheduler.class){
+                if(sharedScheduler == null)
+                    sharedScheduler = new TournamentScheduler();
+            }
+        }
+        return sharedScheduler;
+    }
+
+    /***
+     * @return The number of games played at the same time
+     */
+    public int getThreadCount() {
+        return forkJoinPool.getParallelism();
+    }
+
+    /***
+     * @return The largest number of games which wait for a thread before the submitting thread waits
+     */
+    public int getMaximumQueuedGames() {
+        return maximumQueuedGames;
+    }
+
+    /***
+     * @return The number of games submitted which are waiting for a thread at this time
+     */
+    public int getQueueDepth() {
+        return queuedGames.get();
+    }
+
+    /***
+     * @return The number of games played since the scheduler was created
+     */
+    public long getGamesPlayed() {
+        return gamesPlayed.get();
+    }
+
+    /***
+     * Plays a tournament between the individuals of the population, round after round, recording the result of each game in both individuals
+     * @param population The individuals of the tournament
+     * @param pairingStrategy The strategy choosing who plays whom in each round
+     * @param matchesPerTournament The number of matches each individual is to play, as understood by the pairing strategy
+     * @param random The source of the random choices of the pairings
+     * @return The counters of the games of the tournament
+     */
+    public TournamentStatistics playTournament(List<Individual> population, PairingStrategy pairingStrategy, int matchesPerTournament, Random random) {
+        TournamentStatistics tournamentStatistics = new TournamentStatistics(0, 0, 0, getThreadCount());
+        List<PairingStrategy.Pairing> previousPairings = new ArrayList<>();
+        int roundCount = pairingStrategy.getRoundCount(population.size(), matchesPerTournament);
+        for (int round = 0; round < roundCount; round++) {
+            List<PairingStrategy.Pairing> pairings = pairingStrategy.pairRound(population, matchesPerTournament, round, previousPairings, random);
+            List<Runnable> games = new ArrayList<>(pairings.size());
+            for(PairingStrategy.Pairing pairing: pairings)
+                games.add(new GameRunnable(pairing.getWhite(), pairing.getBlack()));
+            tournamentStatistics = tournamentStatistics.add(playGames(games));
+            previousPairings.addAll(pairings);
+        }
+        return tournamentStatistics;
+    }
+
+    /***
+     * Plays the given games on the threads of the scheduler and waits until all of them are over
+     * If a game throws an exception it is thrown again once all the games are over
+     * @param games The games to be played, each of which records its own result
+     * @return The counters of the games
+     */
+    public TournamentStatistics playGames(List<? extends Runnable> games) {
+        long startTime = System.nanoTime();
+        int maximumQueueDepth = 0;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(games.size());
+        for(Runnable game: games){
+            //Wait for a slot, so that no more than maximumQueuedGames games are waiting for a thread
+            queueSlots.acquireUninterruptibly();
+            maximumQueueDepth = Math.max(maximumQueueDepth, queuedGames.incrementAndGet());
+            tasks.add(forkJoinPool.submit(() -> {
+                queuedGames.decrementAndGet();
+                queueSlots.release();
+                try {
+                    game.run();
+                } finally {
+                    gamesPlayed.incrementAndGet();
+                }
+            }));
+        }
+        RuntimeException exception = null;
+        for(ForkJoinTask<?> task: tasks){
+            try {
+                task.join();
+            } catch (RuntimeException e) {
+                if(exception == null)
+                    exception = e;
+            }
+        }
+        if(exception != null)
+            throw exception;
+        return new TournamentStatistics(games.size(), System.nanoTime() - startTime, maximumQueueDepth, getThreadCount());
+    }
+
+    /***
+     * GameRunnable plays a game between two individuals of a tournament and records its result in both of them
+     * Member Variables:
+     *              individual - The individual playing White
+     *              otherIndividual - The individual playing Black
+     */
+    static class GameRunnable implements Runnable{
+        private final Individual individual, otherIndividual;
+
+        GameRunnable(Individual individual, Individual otherIndividual){
+            this.individual = individual;
+            this.otherIndividual = otherIndividual;
+        }
+
+        @Override
+        public void run() {
+            Game game = new Game(individual.getPlayer(), otherIndividual.getPlayer());
+            GameResult matchResult = game.start();
+            if(matchResult == GameResult.WON){
+                individual.updateRecordsForMatchWon();
+                otherIndividual.updateRecordsForMatchLost();
+            }else if(matchResult == GameResult.LOST){
+                individual.updateRecordsForMatchLost();
+                otherIndividual.updateRecordsForMatchWon();
+            }else if(matchResult == GameResult.DRAWN){
+                individual.updateRecordsForMatchDrawn();
+                otherIndividual.updateRecordsForMatchDrawn();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package GeneticAlgorithm;
+
+/***
+ * TournamentStatistics holds the counters of the games played by a TournamentScheduler in a tournament or in a round of it
+ * Member Variables:
+ *              gameCount - The number of games played
+ *              elapsedTime - The time taken to play them in nanoseconds
+ *              maximumQueueDepth - The largest number of games waiting for a thread of the scheduler at any time
+ *              threadCount - The number of threads of the scheduler which played the games
+ */
+public class TournamentStatistics {
+    private final long gameCount;
+    private final long elapsedTime;
+    private final int maximumQueueDepth;
+    private final int threadCount;
+
+    TournamentStatistics(long gameCount, long elapsedTime, int maximumQueueDepth, int threadCount) {
+        this.gameCount = gameCount;
+        this.elapsedTime = elapsedTime;
+        this.maximumQueueDepth = maximumQueueDepth;
+        this.threadCount = threadCount;
+    }
+
+    /***
+     * @param other The counters of the games played after these ones, as in the next round of a tournament
+     * @return The counters of the games of both
+     */
+    public TournamentStatistics add(TournamentStatistics other) {
+        return new TournamentStatistics(gameCount + other.gameCount, elapsedTime + other.elapsedTime,
+                Math.max(maximumQueueDepth, other.maximumQueueDepth), Math.max(threadCount, other.threadCount));
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /***
+     * @return The time taken to play the games in milliseconds
+     */
+    public long getElapsedTime() {
+        return elapsedTime/1000000;
+    }
+
+    /***
+     * @return The number of games played per second
+     */
+    public double getGamesPerSecond() {
+        return elapsedTime == 0 ? 0.0 : gameCount/(elapsedTime/1e9);
+    }
+
+    public int getMaximumQueueDepth() {
+        return maximumQueueDepth;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Games: " + gameCount + " in " + getElapsedTime() + " ms (" + String.format("%.1f", getGamesPerSecond()) + " games/s) Threads: "
+                + threadCount + " Maximum queue depth: " + maximumQueueDepth;
+    }
+}
@@ -1,12 +1,24 @@
 package Players;
 
 import Checkers.Alliance;
+import Checkers.BoardListener;
 import Checkers.CheckersBoard;
 import Checkers.Move;
+import Checkers.MoveBuffer;
+import Checkers.PackedMove;
 import Players.Evaluator.Evaluator;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /***
  * AlphaBetaPlayer represents a Player which finds the best move on the given board position by using minimax algorithm accompanied with alpha-beta pruning
@@ -14,20 +26,72 @@ import java.util.List;
  * Member Variables:
  *              Players.Evaluator evaluator - It is an Players.Evaluator object which uses its evaluate() method to find the evaluated value of a given board position
  *              int depth - It is the depth upto which the AlphaBetaPlayer creates the game tree for a given board position
+ *              long thinkingTime - The time in milliseconds a search may take, the search then deepens iteratively upto depth
+ *                                  until the time is over, 0 if the search always goes upto depth
+ *              int transpositionTableSize - The memory budget in megabytes of the TranspositionTable of the player, 0 if it does not use one
+ *              TranspositionTable transpositionTable - The table of the searched positions shared by all the searches of the player,
+ *                                                      it is not saved with the player and is created on its first search
+ *              int quiescenceDepth - The number of capture moves which may be searched beyond depth before a position is evaluated anyway,
+ *                                    0 to evaluate the positions at depth even if a capture is pending
+ *              int threadCount - The number of threads searching the moves of the root position at the same time, 1 if it is 0
+ *              boolean isDeterministic - If set, a TranspositionTable entry only gives the value of a position searched to the same depth,
+ *                                        so the best move does not depend on the earlier searches or on the threadCount,
+ *                                        and each game searches with a TranspositionTable cleared for it, so it does not depend on the other games either
+ *              ForkJoinPool searchPool - The threads of the searches of the player if threadCount is more than 1, it is not saved with the player
+ *              Supplier<MoveOrdering> moveOrdering - Creates the MoveOrdering of each search, it is not saved with the player
+ *              SearchStatistics lastSearchStatistics - The counters of the last search which was finished
  */
 public class AlphaBetaPlayer extends Player implements Serializable{
+    private static final long serialVersionUID = 1206842772103593608L;      //Kept fixed so that the saved players in src/Data can still be read
+
+    public static final int defaultTranspositionTableSize = 4;     //Memory budget in megabytes of the TranspositionTable of a player
+    public static final int defaultQuiescenceDepth = 8;            //Capture moves searched beyond depth by a player
 
     private final Evaluator evaluator;
     private final int depth;
+    private long thinkingTime;
+    private Integer transpositionTableSize;    //Null for the players saved before the table was added, they use the default size
+    private Integer quiescenceDepth;           //Null for the players saved before the quiescence search was added, they use the default
+    private int threadCount;
+    private boolean isDeterministic;
+    private transient volatile ForkJoinPool searchPool;
+    private transient volatile TranspositionTable transpositionTable;
+    private transient volatile Supplier<MoveOrdering> moveOrdering;
+    private transient volatile SearchStatistics lastSearchStatistics;
 
     /***
      * Parametrized constructor creates a AlphaBetaPlayer object with given evaluator and depth
+     * and a TranspositionTable of the default size
      * @param depth Depth upto which the game tree is to be created
      * @param evaluator The Players.Evaluator object used to evaluate the leaf nodes of the game tree
      */
     public AlphaBetaPlayer(int depth, Evaluator evaluator) {
+        this(depth, evaluator, defaultTranspositionTableSize);
+    }
+
+    /***
+     * Parametrized constructor creates a AlphaBetaPlayer object with given evaluator, depth and TranspositionTable size
+     * @param depth Depth upto which the game tree is to be created
+     * @param evaluator The Players.Evaluator object used to evaluate the leaf nodes of the game tree
+     * @param transpositionTableSize Memory budget of the TranspositionTable in megabytes, 0 to search without a TranspositionTable
+     */
+    public AlphaBetaPlayer(int depth, Evaluator evaluator, int transpositionTableSize) {
         this.depth = depth;
         this.evaluator = evaluator;
+        this.transpositionTableSize = transpositionTableSize;
+    }
+
+    /***
+     * Parametrized constructor creates a AlphaBetaPlayer object which searches each position for the given thinking time
+     * It searches to depth 1, 2, 3 and so on until the time is over, and plays the best move of the last search which was finished
+     * @param maximumDepth Depth upto which the game tree may be created if the time is not over before
+     * @param evaluator The Players.Evaluator object used to evaluate the leaf nodes of the game tree
+     * @param transpositionTableSize Memory budget of the TranspositionTable in megabytes, 0 to search without a TranspositionTable
+     * @param thinkingTime The time in milliseconds each search may take
+     */
+    public AlphaBetaPlayer(int maximumDepth, Evaluator evaluator, int transpositionTableSize, long thinkingTime) {
+        this(maximumDepth, evaluator, transpositionTableSize);
+        this.thinkingTime = thinkingTime;
     }
 
     /***
@@ -46,97 +110,678 @@ public class AlphaBetaPlayer extends Player implements Serializable{
         return depth;
     }
 
+    /***
+     * Getter method for the thinkingTime member field
+     * @return The time in milliseconds a search of this AlphaBetaPlayer may take, 0 if it always searches upto depth
+     */
+    public long getThinkingTime() {
+        return thinkingTime;
+    }
+
+    /***
+     * Getter method for the transpositionTable member field, the table is created on the first call
+     * @return The TranspositionTable used by the searches of this AlphaBetaPlayer, or null if it searches without one
+     */
+    public TranspositionTable getTranspositionTable() {
+        int size = transpositionTableSize == null ? defaultTranspositionTableSize : transpositionTableSize;
+        if(transpositionTable == null && size > 0){
+            synchronized (this){
+                if(transpositionTable == null)
+                    transpositionTable = new TranspositionTable(size);
+            }
+        }
+        return transpositionTable;
+    }
+
+    /***
+     * Getter method for the quiescenceDepth member field
+     * @return The number of capture moves which may be searched beyond depth before a position is evaluated anyway
+     */
+    public int getQuiescenceDepth() {
+        return quiescenceDepth == null ? defaultQuiescenceDepth : quiescenceDepth;
+    }
+
+    /***
+     * Setter method for the quiescenceDepth member field
+     * @param quiescenceDepth The number of capture moves which may be searched beyond depth, 0 to turn off the quiescence search
+     */
+    public void setQuiescenceDepth(int quiescenceDepth) {
+        this.quiescenceDepth = Math.max(0, quiescenceDepth);
+    }
+
+    /***
+     * Getter method for the threadCount member field
+     * @return The number of threads searching the moves of the root position at the same time
+     */
+    public int getThreadCount() {
+        return Math.max(1, threadCount);
+    }
+
+    /***
+     * Setter method for the threadCount member field
+     * The threads are shared by all the searches of this AlphaBetaPlayer, so several games played by the player at the same time
+     * do not use more threads than the given count
+     * @param threadCount The number of threads searching the moves of the root position at the same time, 1 to search on the calling thread
+     */
+    public synchronized void setThreadCount(int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+        if(searchPool != null){
+            searchPool.shutdown();
+            searchPool = null;
+        }
+    }
+
+    /***
+     * Getter method for the isDeterministic member field
+     * @return True if the best move found by this AlphaBetaPlayer depends only on the board position and the depth
+     */
+    public boolean isDeterministic() {
+        return isDeterministic;
+    }
+
+    /***
+     * Setter method for the isDeterministic member field
+     * A deterministic search finds the same best move at the same depth whatever the threadCount and the earlier searches,
+     * as it never uses the value of a position searched deeper in the TranspositionTable. It is only deterministic if it is not timed.
+     * The games it plays through startGame() search with a TranspositionTable of their own, so that they do not depend on the games played at the same time.
+     * The table is sized to the depth, taken from the tables kept on the thread playing the game and cleared when the game starts,
+     * so a game played on one thread does not allocate a table but costs the clearing of one.
+     * @param isDeterministic Whether the searches of this AlphaBetaPlayer are to be deterministic
+     */
+    public void setDeterministic(boolean isDeterministic) {
+        this.isDeterministic = isDeterministic;
+    }
+
+    private ForkJoinPool getSearchPool() {
+        if(searchPool == null){
+            synchronized (this){
+                if(searchPool == null)
+                    searchPool = new ForkJoinPool(getThreadCount());
+            }
+        }
+        return searchPool;
+    }
+
+    /***
+     * Setter method for the moveOrdering member field
+     * @param moveOrdering Creates a new MoveOrdering for each search, null to use a HeuristicMoveOrdering with all its stages
+     */
+    public void setMoveOrdering(Supplier<MoveOrdering> moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    /***
+     * Getter method for the lastSearchStatistics member field
+     * If several games are played by this AlphaBetaPlayer at the same time, they are the counters of any one of the last searches
+     * @return The counters of the last search which was finished, or null if no search was finished
+     */
+    public SearchStatistics getLastSearchStatistics() {
+        return lastSearchStatistics;
+    }
+
+    /***
+     * Creates a GameSession which plays one game for this AlphaBetaPlayer, so that the player can play several games at the same time
+     * without the games changing the alliance of each other
+     * @param alliance The alliance the player takes in the game
+     * @return A new GameSession sharing the evaluator, the TranspositionTable and the threads of this AlphaBetaPlayer,
+     *         or sharing the evaluator and the threads only if the player is deterministic
+     */
+    @Override
+    public GameSession startGame(Alliance alliance) {
+        GameSession gameSession = new GameSession(this);
+        gameSession.setAlliance(alliance);
+        return gameSession;
+    }
+
     @Override
     public Move bestMove(CheckersBoard checkersBoard) {
-        //Get list of all legal moves in the current board position
-        List<Move> legalMoves = checkersBoard.getAllMoves();
+        return bestMove(checkersBoard, null);
+    }
+
+    /***
+     * Finds the best move in the given board position
+     * @param checkersBoard The current board position where the best move is to be found
+     * @param gameSession The GameSession whose game the search is for, to which the counters of the search are given, or null
+     * @return The best move in the board position, or null if there is no legal move
+     */
+    private Move bestMove(CheckersBoard checkersBoard, GameSession gameSession) {
+        //Create the state of this search, it is local to the call so that the player can search in several games at the same time
+        Supplier<MoveOrdering> moveOrderingSupplier = moveOrdering;
+        TranspositionTable searchTable = gameSession != null && isDeterministic ? gameSession.getTranspositionTable() : getTranspositionTable();
+        SearchState searchState = new SearchState(depth, searchTable, createMoveOrdering(moveOrderingSupplier), checkersBoard.getPlyCount());
+        if(searchState.transpositionTable != null)
+            searchState.transpositionTable.newSearch();
+
+        //Get all legal moves in the current board position
+        MoveBuffer legalMoves = searchState.moveBuffers[depth];
+        checkersBoard.generateMoves(legalMoves);
         //If no legal move was found we return null, which represents a loss of the game for the current player in the Game class
         if(legalMoves.size()==0)
             return null;
 
-        if(legalMoves.size()==1)
-            return legalMoves.get(0);
+        if(legalMoves.size()==1){
+            //The move is played without a search, so the counters of this call are left empty with a completed depth of 0
+            lastSearchStatistics = searchState.statistics;
+            if(gameSession != null)
+                gameSession.lastSearchStatistics = searchState.statistics;
+            return checkersBoard.toMove(legalMoves.get(0));
+        }
 
+        //Each thread of a parallel search gets its own copy of the board and its own SearchState
+        if(getThreadCount() > 1){
+            searchState.helpers = new SearchState[getThreadCount()];
+            for (int i = 0; i < searchState.helpers.length; i++) {
+                searchState.helpers[i] = new SearchState(depth, searchState.transpositionTable, createMoveOrdering(moveOrderingSupplier), checkersBoard.getPlyCount());
+                searchState.helpers[i].rootBoard = checkersBoard.clone();
+                searchState.helpers[i].rootBoard.setBoardListener(evaluator.createBoardListener());
+            }
+        }
+
+        //Let the evaluator keep its incremental state up to date as the search makes and unmakes moves on the board
+        BoardListener previousBoardListener = checkersBoard.getBoardListener();
+        checkersBoard.setBoardListener(evaluator.createBoardListener());
+        long bestMove;
+        try {
+            if(thinkingTime <= 0){
+                bestMove = searchRoot(checkersBoard, depth, legalMoves, searchState);
+                searchState.statistics.setCompletedDepth(depth);
+            }else{
+                //Deepen the search one level at a time until the thinking time is over, an unfinished iteration is thrown away
+                searchState.setDeadline(System.nanoTime() + thinkingTime*1000000);
+                bestMove = legalMoves.get(0);
+                for(int iterationDepth = 1; iterationDepth <= depth; iterationDepth++){
+                    //Search the best move of the previous iteration first, so that the next iteration is cut off sooner
+                    moveToFront(legalMoves, bestMove);
+                    long iterationBestMove = searchRoot(checkersBoard, iterationDepth, legalMoves, searchState);
+                    if(searchState.isTimeOver)
+                        break;
+                    bestMove = iterationBestMove;
+                    searchState.statistics.setCompletedDepth(iterationDepth);
+                }
+            }
+        } finally {
+            checkersBoard.setBoardListener(previousBoardListener);
+        }
+        if(searchState.helpers != null){
+            for(SearchState helper: searchState.helpers)
+                searchState.statistics.add(helper.statistics);
+        }
+        lastSearchStatistics = searchState.statistics;
+        if(gameSession != null)
+            gameSession.lastSearchStatistics = searchState.statistics;
+        //Convert the packed best move back to a Move object for the caller
+        return bestMove == PackedMove.NONE ? null : checkersBoard.toMove(bestMove);
+    }
+
+    /***
+     * Finds the best move in the given board position by searching each of its legal moves up to the given depth
+     * The legal moves are searched one after the other, or at the same time by the threads of the search pool if threadCount is more than 1
+     * @param checkersBoard The board position whose best move is to be found
+     * @param depth The depth upto which the game tree is to be searched
+     * @param legalMoves The legal moves of the board position, they are searched in the order of the buffer
+     * @param searchState The state of the current search
+     * @return The packed best move, it is not valid if the thinking time of the search got over during the search
+     */
+    private long searchRoot(CheckersBoard checkersBoard, int depth, MoveBuffer legalMoves, SearchState searchState){
         //To find the best move in the position we need to to 1 depth of minimax search here itself
         //Otherwise the alphabeta() will return only the value of the current node not the best move
         //So we call alphabeta() for the board positions for each possible move here and find the best move by comparing there alphabeta scores
-        Move bestMove = null;
-        double bestScore;
-        //If white is to move the best move is the move for which the resulting board position has the maximum alphabeta score because White is the maximising player
-        if(checkersBoard.getAllianceToMove() == Alliance.WHITE){
-            bestScore = -1.0;   //best score is set to the minimum possible score for white i.e. -1 which represents win for Black
+        double[] scores = searchState.getRootScores(legalMoves.size());
+        if(searchState.helpers != null){
+            searchRootMovesInParallel(depth, legalMoves, scores, searchState);
+        }else{
             //Iterate through each move and call alphabeta for the resulting board position after applying that move
-            for(Move move: legalMoves){
-                CheckersBoard boardCopy = checkersBoard.clone();    //Create a copy of the board position for using it for the later moves
-                boardCopy.makeMove(move);   //Make the move on the copy board position
+            for(int i = 0; i < legalMoves.size(); i++){
+                checkersBoard.makeMove(legalMoves.get(i));   //Make the move on the board position, it is unmade after the search so it can be used for the later moves
                 //Find the score of the current board position by calling alphabeta()
-                double currentScore = alphabeta(boardCopy, depth-1, -1.0, 1.0);
-                if(currentScore > bestScore){   //If this move resulted in a better score update the best score value and the best move as well
-                    bestMove = move;
-                    bestScore = currentScore;
-                }
+                scores[i] = alphabeta(checkersBoard, depth-1, -1.0, 1.0, searchState);
+                checkersBoard.unmakeMove();
+                if(searchState.isTimeOver)
+                    break;
             }
         }
+        if(searchState.isTimeOver)
+            return PackedMove.NONE;
+
+        //If white is to move the best move is the move for which the resulting board position has the maximum alphabeta score because White is the maximising player
         //If Black is to move the best move is the move for which the resulting board position has the minimum alphabeta score because Black is the minimising player
-        else{
-            bestScore = 1.0;    //best score is set to the worst possible score for black i.e. +1 which represents win for White
-            //Iterate through each move and call alphabeta for the resulting board position after applying that move
-            for(Move move: legalMoves){
-                CheckersBoard boardCopy = checkersBoard.clone();    //Create a copy of the board position for using it for the later moves
-                boardCopy.makeMove(move);   //Make the move on the copy board position
-                //Find the score of the current board position by calling alphabeta()
-                double currentScore = alphabeta(boardCopy, depth-1, -1.0, 1.0);
-                if(currentScore < bestScore){   //If this move resulted in a lower score update the best score value and the best move as well
-                    bestMove = move;
-                    bestScore = currentScore;
-                }
+        //The best score is set to the worst possible score for the alliance to move, i.e. -1 for White and +1 for Black
+        boolean isWhiteToMove = checkersBoard.getAllianceToMove() == Alliance.WHITE;
+        long bestMove = PackedMove.NONE;
+        double bestScore = isWhiteToMove ? -1.0 : 1.0;
+        //If two moves have the same score the one which comes first in the buffer is kept, so the order in which they were searched does not matter
+        for(int i = 0; i < legalMoves.size(); i++){
+            if(isWhiteToMove ? scores[i] > bestScore : scores[i] < bestScore){
+                bestMove = legalMoves.get(i);
+                bestScore = scores[i];
             }
         }
+        //Store the result of the root position so that its best move is known to the later searches
+        if(searchState.transpositionTable != null)
+            searchState.transpositionTable.store(checkersBoard.getZobristKey(), depth, TranspositionTable.EXACT, (float) bestScore, bestMove);
         return bestMove;
     }
 
+    /***
+     * Searches the legal moves of the root position with the threads of the search pool
+     * Each thread takes the next move which has not been searched yet and searches it on its own copy of the board with its own
+     * helper SearchState, until all the moves are searched. The threads share the TranspositionTable.
+     * Each move is searched with the full alpha-beta window, so its score does not depend on the other moves
+     * @param depth The depth upto which the game tree is to be searched
+     * @param legalMoves The legal moves of the root position
+     * @param scores Array into which the score of each legal move is written
+     * @param searchState The state of the current search, holding the helper SearchStates of the threads
+     */
+    private void searchRootMovesInParallel(int depth, MoveBuffer legalMoves, double[] scores, SearchState searchState){
+        AtomicInteger nextMoveIndex = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for(SearchState helper: searchState.helpers){
+            tasks.add(() -> {
+                CheckersBoard helperBoard = helper.rootBoard;
+                int i;
+                while(!helper.isTimeOver && (i = nextMoveIndex.getAndIncrement()) < legalMoves.size()){
+                    helperBoard.makeMove(legalMoves.get(i));
+                    scores[i] = alphabeta(helperBoard, depth-1, -1.0, 1.0, helper);
+                    helperBoard.unmakeMove();
+                }
+                return null;
+            });
+        }
+        try {
+            for(Future<Void> future: getSearchPool().invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException e) {
+            //Give up the search as if its time was over, the interrupt is kept for the caller
+            Thread.currentThread().interrupt();
+            searchState.isTimeOver = true;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        for(SearchState helper: searchState.helpers)
+            searchState.isTimeOver |= helper.isTimeOver;
+    }
+
     /***
      * Finds the value at a given board postion by applying minimax algorithm along with alpha-beta pruning
      * and evaluates the leaf nodes of the game tree by evaluating those board position using the Players.Evaluator object
+     * The moves are made and unmade on the given board position, so it is the same as before once the method returns
+     * The position is first looked up in the TranspositionTable, whose entry may give its value without searching it
+     * or a bound which narrows the alpha-beta window, and whose best move is searched first
      * @param checkersBoard The given CheckersBoard object represinting the current board position to be evaluated
      * @param depth The depth upto which tree is to be searched
      * @param alpha The best value for Maximising/White player found till now
      * @param beta The best value for Minimising/Black player found till now
+     * @param searchState The state of the current search, the moves at this depth are generated into its moveBuffers[depth]
      * @return
      */
-    private double alphabeta(CheckersBoard checkersBoard, int depth, double alpha, double beta){
+    private double alphabeta(CheckersBoard checkersBoard, int depth, double alpha, double beta, SearchState searchState){
+        if(searchState.checkTime())
+            return 0.0;     //The result is thrown away by searchRoot()
+        searchState.statistics.addNode();
         if(depth == 0)
-            return evaluator.evaluate(checkersBoard);
-        List<Move> legalMoves = checkersBoard.getAllMoves();
+            return quiescence(checkersBoard, 0, alpha, beta, searchState);
+
+        //Look up the position in the transposition table
+        TranspositionTable transpositionTable = searchState.transpositionTable;
+        long key = checkersBoard.getZobristKey();
+        long hashMove = PackedMove.NONE;
+        if(transpositionTable != null && transpositionTable.probe(key, searchState.tableEntry)){
+            long data = searchState.tableEntry[0];
+            hashMove = searchState.tableEntry[1];
+            //The entry can only be used for the value of the position if it was searched at least as deep, or exactly as deep in a deterministic search
+            int entryDepth = TranspositionTable.depthOf(data);
+            if(isDeterministic ? entryDepth == depth : entryDepth >= depth){
+                double score = TranspositionTable.scoreOf(data);
+                int bound = TranspositionTable.boundOf(data);
+                if(bound == TranspositionTable.EXACT)
+                    return score;
+                if(bound == TranspositionTable.LOWER_BOUND)
+                    alpha = Math.max(alpha, score);
+                else
+                    beta = Math.min(beta, score);
+                if(alpha >= beta)
+                    return score;
+            }
+        }
+        double originalAlpha = alpha, originalBeta = beta;
+
+        MoveBuffer legalMoves = searchState.moveBuffers[depth];
+        legalMoves.clear();
+        checkersBoard.generateMoves(legalMoves);
         if(legalMoves.size()==0)
             return (checkersBoard.getAllianceToMove() == Alliance.WHITE)? -1.0 : 1.0;
-        /*if(legalMoves.size()==1){
-            CheckersBoard boardCopy = checkersBoard.clone();
-            boardCopy.makeMove(legalMoves.get(0));
-            return alphabeta(boardCopy, depth+1, alpha, beta);
-        }*/
+        int ply = checkersBoard.getPlyCount() - searchState.rootPlyCount;
+        searchState.moveOrdering.orderMoves(checkersBoard, legalMoves, hashMove, ply);
+
+        double currentBest;
+        long bestMove = legalMoves.get(0);
         if(checkersBoard.getAllianceToMove() == Alliance.WHITE){
-            double currentBest = -1.0;
-            for(Move move: legalMoves){
-                CheckersBoard boardCopy = checkersBoard.clone();
-                boardCopy.makeMove(move);
-                currentBest = Math.max(currentBest, alphabeta(boardCopy, depth-1, alpha, beta));
-                if(currentBest >= beta)
+            currentBest = -1.0;
+            for(int i = 0; i < legalMoves.size(); i++){
+                checkersBoard.makeMove(legalMoves.get(i));
+                double score = alphabeta(checkersBoard, depth-1, alpha, beta, searchState);
+                checkersBoard.unmakeMove();
+                if(searchState.isTimeOver)
+                    return 0.0;
+                if(score > currentBest){
+                    currentBest = score;
+                    bestMove = legalMoves.get(i);
+                }
+                if(currentBest >= beta){
+                    recordCutoff(searchState, ply, i, legalMoves.get(i), depth);
                     break;
+                }
                 alpha = Math.max(alpha, currentBest);
             }
-            return currentBest;
         }else{
-            double currentBest = 1.0;
-            for(Move move: legalMoves){
-                CheckersBoard boardCopy = checkersBoard.clone();
-                boardCopy.makeMove(move);
-                currentBest = Math.min(currentBest, alphabeta(boardCopy, depth-1, alpha, beta));
-                if(currentBest <= alpha)
+            currentBest = 1.0;
+            for(int i = 0; i < legalMoves.size(); i++){
+                checkersBoard.makeMove(legalMoves.get(i));
+                double score = alphabeta(checkersBoard, depth-1, alpha, beta, searchState);
+                checkersBoard.unmakeMove();
+                if(searchState.isTimeOver)
+                    return 0.0;
+                if(score < currentBest){
+                    currentBest = score;
+                    bestMove = legalMoves.get(i);
+                }
+                if(currentBest <= alpha){
+                    recordCutoff(searchState, ply, i, legalMoves.get(i), depth);
                     break;
+                }
                 beta = Math.min(beta, currentBest);
             }
-            return currentBest;
+        }
+
+        //Store the result, it is only a bound on the value of the position if it is outside the alpha-beta window
+        if(transpositionTable != null){
+            int bound = currentBest <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                    : currentBest >= originalBeta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            transpositionTable.store(key, depth, bound, (float) currentBest, bestMove);
+        }
+        return currentBest;
+    }
+
+    /***
+     * Finds the value of a leaf position of the game tree by searching the capture moves which are pending in it
+     * As a capture has to be made whenever one is possible, a position in which the alliance to move can capture is searched
+     * further over its jump moves only, until a position without captures is reached which is then evaluated.
+     * After quiescenceDepth captures the position is evaluated even if more captures are pending.
+     * @param checkersBoard The leaf board position
+     * @param captureDepth The number of capture moves made since the leaf position
+     * @param alpha The best value for Maximising/White player found till now
+     * @param beta The best value for Minimising/Black player found till now
+     * @param searchState The state of the current search
+     * @return The value of the position once the pending captures are made
+     */
+    private double quiescence(CheckersBoard checkersBoard, int captureDepth, double alpha, double beta, SearchState searchState){
+        if(captureDepth > 0){
+            searchState.statistics.addQuiescenceNode();
+            if(searchState.checkTime())
+                return 0.0;
+        }
+        if(captureDepth >= getQuiescenceDepth())
+            return evaluator.evaluate(checkersBoard);
+
+        MoveBuffer jumpMoves = searchState.getQuiescenceBuffer(captureDepth);
+        jumpMoves.clear();
+        if(checkersBoard.generateJumpMoves(jumpMoves) == 0)
+            return evaluator.evaluate(checkersBoard);   //The position is quiet
+        int ply = checkersBoard.getPlyCount() - searchState.rootPlyCount;
+        searchState.moveOrdering.orderMoves(checkersBoard, jumpMoves, PackedMove.NONE, ply);
+
+        double currentBest;
+        if(checkersBoard.getAllianceToMove() == Alliance.WHITE){
+            currentBest = -1.0;
+            for(int i = 0; i < jumpMoves.size(); i++){
+                checkersBoard.makeMove(jumpMoves.get(i));
+                currentBest = Math.max(currentBest, quiescence(checkersBoard, captureDepth+1, alpha, beta, searchState));
+                checkersBoard.unmakeMove();
+                if(searchState.isTimeOver)
+                    return 0.0;
+                if(currentBest >= beta){
+                    recordCutoff(searchState, ply, i, jumpMoves.get(i), 0);
+                    break;
+                }
+                alpha = Math.max(alpha, currentBest);
+            }
+        }else{
+            currentBest = 1.0;
+            for(int i = 0; i < jumpMoves.size(); i++){
+                checkersBoard.makeMove(jumpMoves.get(i));
+                currentBest = Math.min(currentBest, quiescence(checkersBoard, captureDepth+1, alpha, beta, searchState));
+                checkersBoard.unmakeMove();
+                if(searchState.isTimeOver)
+                    return 0.0;
+                if(currentBest <= alpha){
+                    recordCutoff(searchState, ply, i, jumpMoves.get(i), 0);
+                    break;
+                }
+                beta = Math.min(beta, currentBest);
+            }
+        }
+        return currentBest;
+    }
+
+    private static MoveOrdering createMoveOrdering(Supplier<MoveOrdering> moveOrderingSupplier){
+        return moveOrderingSupplier == null ? new HeuristicMoveOrdering() : moveOrderingSupplier.get();
+    }
+
+    /***
+     * Counts the cutoff in the stage of the move which caused it and lets the MoveOrdering learn from it
+     * @param searchState The state of the current search
+     * @param ply The number of moves made from the root position to the position which was cut off
+     * @param index The index of the move in the ordered moves of the position
+     * @param move The packed move which caused the cutoff
+     * @param depth The depth upto which the position was searched
+     */
+    private static void recordCutoff(SearchState searchState, int ply, int index, long move, int depth){
+        searchState.statistics.addCutoff(searchState.moveOrdering.getStage(ply, index));
+        searchState.moveOrdering.recordCutoff(ply, move, depth);
+    }
+
+    /***
+     * Moves the given move to the front of the buffer so that it is searched first, the other moves keep their order
+     * @param moves The move buffer
+     * @param move The packed move to be moved, nothing is done if it is PackedMove.NONE or not in the buffer
+     */
+    private static void moveToFront(MoveBuffer moves, long move){
+        if(move == PackedMove.NONE)
+            return;
+        for (int i = 0; i < moves.size(); i++) {
+            if(moves.get(i) == move){
+                for (int j = i; j > 0; j--) {
+                    moves.set(j, moves.get(j-1));
+                }
+                moves.set(0, move);
+                return;
+            }
+        }
+    }
+
+    /***
+     * GameSession plays one game for an AlphaBetaPlayer, it is the Player a Game gets from startGame()
+     * The immutable parts of the player, such as the weights of its evaluator, and its thread-safe parts, the TranspositionTable and
+     * the threads of its searches, are shared with the other games of the player. The state of a game, its alliance and the counters
+     * of its last search, is kept in the session, and the mutable state of a search, its move buffers and the killer moves and history
+     * of its MoveOrdering, is created for each call to bestMove() in a SearchState. The searches of many games can thus run at the same time.
+     * The session of a deterministic player searches with a TranspositionTable of its own instead of the shared one, as the entries
+     * stored by the other games could change which of two moves of the same value is found. The table is one of the SessionTables of
+     * the thread the game is played on, which is cleared when the session first searches with it.
+     * Member Variables:
+     *              alphaBetaPlayer - The AlphaBetaPlayer the session plays for
+     *              lastSearchStatistics - The counters of the last search of this game
+     */
+    public static final class GameSession extends Player {
+        private static final ThreadLocal<SessionTables> sessionTables = ThreadLocal.withInitial(SessionTables::new);
+
+        private final AlphaBetaPlayer alphaBetaPlayer;
+        private volatile SearchStatistics lastSearchStatistics;
+
+        private GameSession(AlphaBetaPlayer alphaBetaPlayer) {
+            this.alphaBetaPlayer = alphaBetaPlayer;
+        }
+
+        /***
+         * Getter method for the alphaBetaPlayer member field
+         * @return The AlphaBetaPlayer the session plays for
+         */
+        public AlphaBetaPlayer getAlphaBetaPlayer() {
+            return alphaBetaPlayer;
+        }
+
+        /***
+         * Getter method for the lastSearchStatistics member field
+         * @return The counters of the last search of this game, or null if no search was finished
+         */
+        public SearchStatistics getLastSearchStatistics() {
+            return lastSearchStatistics;
+        }
+
+        /***
+         * The table holds only the entries of this game as long as the game is played on one thread, as the games of a TournamentScheduler are.
+         * It is sized to the depth of the player, as it only holds the searches of one game: a search to depth 8 stores about 35 thousand
+         * positions, which a 1 MB table holds, and a smaller table is cleared faster and stays in the cache.
+         * @return The TranspositionTable of this game on the current thread, at most of the size of the table of the player,
+         *         or null if the player searches without one
+         */
+        private TranspositionTable getTranspositionTable() {
+            int size = alphaBetaPlayer.transpositionTableSize == null ? defaultTranspositionTableSize : alphaBetaPlayer.transpositionTableSize;
+            int depth = alphaBetaPlayer.depth;
+            //1 MB upto depth 8, doubled for each further ply
+            int sizeForDepth = depth <= 8 ? 1 : 1 << Math.min(depth - 8, 16);
+            return size > 0 ? sessionTables.get().take(this, Math.min(size, sizeForDepth)) : null;
+        }
+
+        /***
+         * A GameSession plays only the game it was created for
+         * @return This GameSession, with its alliance set
+         */
+        @Override
+        public GameSession startGame(Alliance alliance) {
+            setAlliance(alliance);
+            return this;
+        }
+
+        @Override
+        public Move bestMove(CheckersBoard checkersBoard) {
+            return alphaBetaPlayer.bestMove(checkersBoard, this);
+        }
+    }
+
+    /***
+     * SessionTables holds the TranspositionTables with which the deterministic GameSessions search on one thread, one for each alliance
+     * so that the two sessions of a game keep their own tables. The games played one after another on the thread reuse the tables.
+     * Member Variables:
+     *              tables - The table of each alliance, null until a session of that alliance searches on the thread
+     *              sizes - The memory budget in megabytes each table was created with
+     *              owners - The session which searched last with each table, kept weakly so that the games which are over can be collected
+     */
+    private static final class SessionTables {
+        private final TranspositionTable[] tables = new TranspositionTable[2];
+        private final int[] sizes = new int[2];
+        private final List<WeakReference<GameSession>> owners = new ArrayList<>(Arrays.asList(null, null));
+
+        /***
+         * Gives the table of the alliance of a session, cleared if another session searched with it last
+         * @param gameSession The session which is to search with the table
+         * @param size The memory budget of the table in megabytes
+         * @return The table of the session
+         */
+        private TranspositionTable take(GameSession gameSession, int size) {
+            int slot = gameSession.getAlliance() == Alliance.BLACK ? 1 : 0;
+            WeakReference<GameSession> owner = owners.get(slot);
+            if(owner == null || owner.get() != gameSession){
+                if(tables[slot] == null || sizes[slot] != size){
+                    tables[slot] = new TranspositionTable(size);
+                    sizes[slot] = size;
+                }else{
+                    tables[slot].clear();
+                }
+                owners.set(slot, new WeakReference<>(gameSession));
+            }
+            return tables[slot];
+        }
+    }
+
+    /***
+     * SearchState holds the mutable state of one call to bestMove()
+     * Member Variables:
+     *              moveBuffers - One MoveBuffer for each level of the game tree, the moves of a level are generated into its buffer
+     *              tableEntry - Scratch array into which the entries of the TranspositionTable are read
+     *              transpositionTable - The TranspositionTable of the player, null if it searches without one
+     *              moveOrdering - The MoveOrdering of the search
+     *              statistics - The counters of the search
+     *              rootPlyCount - The plyCount of the root position, used to find the ply of a position within the search
+     *              deadline - The System.nanoTime() at which the thinking time of the search is over, 0 if the search is not timed
+     *              isTimeOver - Set once the thinking time is over, the search then unwinds without storing any result
+     *              quiescenceBuffers - One MoveBuffer for each capture depth of the quiescence search, created when first needed
+     *              rootScores - The scores of the legal moves of the root position
+     *              helpers - The SearchStates of the threads of a parallel search, null if the search is not parallel
+     *              rootBoard - The copy of the root position on which a helper SearchState searches
+     */
+    private static final class SearchState {
+        private static final int nodesBetweenClockChecks = 1024;
+
+        private final MoveBuffer[] moveBuffers;
+        private final long[] tableEntry = new long[2];
+        private final TranspositionTable transpositionTable;
+        private final MoveOrdering moveOrdering;
+        private final SearchStatistics statistics = new SearchStatistics();
+        private final int rootPlyCount;
+        private long deadline;
+        private boolean isTimeOver;
+        private int nodesUntilClockCheck = nodesBetweenClockChecks;
+        private MoveBuffer[] quiescenceBuffers = new MoveBuffer[0];
+        private double[] rootScores;
+        private SearchState[] helpers;
+        private CheckersBoard rootBoard;
+
+        private SearchState(int depth, TranspositionTable transpositionTable, MoveOrdering moveOrdering, int rootPlyCount){
+            moveBuffers = new MoveBuffer[depth+1];
+            for (int i = 0; i < moveBuffers.length; i++) {
+                moveBuffers[i] = new MoveBuffer();
+            }
+            this.transpositionTable = transpositionTable;
+            this.moveOrdering = moveOrdering;
+            this.rootPlyCount = rootPlyCount;
+        }
+
+        private MoveBuffer getQuiescenceBuffer(int captureDepth){
+            if(captureDepth >= quiescenceBuffers.length){
+                int oldLength = quiescenceBuffers.length;
+                quiescenceBuffers = Arrays.copyOf(quiescenceBuffers, captureDepth + 1);
+                for (int i = oldLength; i < quiescenceBuffers.length; i++) {
+                    quiescenceBuffers[i] = new MoveBuffer();
+                }
+            }
+            return quiescenceBuffers[captureDepth];
+        }
+
+        private double[] getRootScores(int size){
+            if(rootScores == null || rootScores.length < size)
+                rootScores = new double[size];
+            return rootScores;
+        }
+
+        private void setDeadline(long deadline){
+            this.deadline = deadline;
+            if(helpers != null){
+                for(SearchState helper: helpers)
+                    helper.deadline = deadline;
+            }
+        }
+
+        /***
+         * Called at each node of the search, reads the clock only once every nodesBetweenClockChecks nodes
+         * @return True if the thinking time of the search is over
+         */
+        private boolean checkTime(){
+            if(deadline != 0 && !isTimeOver && --nodesUntilClockCheck == 0){
+                nodesUntilClockCheck = nodesBetweenClockChecks;
+                isTimeOver = System.nanoTime() - deadline >= 0;
+            }
+            return isTimeOver;
         }
     }
 
@@ -1,11 +1,13 @@
 package Players.Evaluator;
 
+import Checkers.BoardListener;
 import Checkers.CheckersBoard;
 /***
  * Players.Evaluator is a functional interface which represents an evaluator function.
  * Its function is to evaluate a given board position and find the evaluated value of the board position
  * It has an abstract method evaluate() which takes a CheckersBoard object and returns the evaluated value of the board position
  * All Evaluators must implement this interface and hence give an implementation of the evaluate() and can be used to evaluate the board position
+ * An Evaluator may also keep part of its work up to date as moves are made on a board, through the BoardListener it creates
  */
 public interface Evaluator {
     /***
@@ -14,4 +16,13 @@ public interface Evaluator {
      * @return The computed value of the board according to this Players.Evaluator
      */
     public abstract float evaluate(CheckersBoard checkersBoard);
+
+    /***
+     * Used by a search to let the Evaluator keep incremental state for the board position it makes and unmakes moves on
+     * The search sets the returned listener on its board with setBoardListener() for the time of the search
+     * @return A new BoardListener which speeds up the evaluation of the board it is set on, or null if the Evaluator keeps no such state
+     */
+    public default BoardListener createBoardListener(){
+        return null;
+    }
 }
@@ -1,10 +1,11 @@
 package Players.Evaluator;
 
+import Checkers.BoardListener;
 import Checkers.CheckersBoard;
-import Checkers.Piece;
 
 import java.io.Serializable;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
 
 /***
  * NeuralNetEvaluator is a concrete subclass of the abstract Players.Evaluator class.
@@ -21,6 +22,7 @@ import java.util.Random;
  */
 
 public class NeuralNetEvaluator implements Serializable, Evaluator {
+    private static final long serialVersionUID = -8403687329592165132L;     //Kept fixed so that the saved neural networks in src/Data can still be read
 
     private static final int inputNodes = 32;   //final static field holds the number of nods in the input layer
     private int nodeCountHiddenLayer1, nodeCountHiddenLayer2;     //Holds number of nodes in the first and the second hidden layer
@@ -35,12 +37,28 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
     private float[][] selfAdaptiveParameterForWeightInputToHidden1;
     private float[][] selfAdaptiveParameterForWeightHidden1ToHidden2;
     private float[] selfAdaptiveParameterForWeightHidden2ToOutput;
+
+    //The weights are copied into flat arrays for the evaluation the first time the neural network is evaluated, so the weight matrices
+    //must not be changed afterwards. The copies and the scratch buffers are not serialized, the saved networks only hold the matrices.
+    private static final float smallInput = 0x1p-12f;     //Below it tanh(x) differs from x by less than half the last bit of x
+    private transient volatile InferenceWeights inferenceWeights;   //Flat copies of the weights, created when first evaluated
+    private transient volatile ThreadLocal<InferenceBuffers> inferenceBuffers;     //Scratch vectors of the evaluations for each thread, created when first used
     /***
      * Parametrized constructor creates a NeuralNetEvaluator object with weights of the connections set to small random values and king value to 2
      * @param nodeCountHiddenLayer1 Number of nodes in the first hidden layer of the neural network
      * @param nodeCountHiddenLayer2 Number of nodes in the second hidden layer of the neural network
      */
     public NeuralNetEvaluator(int nodeCountHiddenLayer1, int nodeCountHiddenLayer2) {
+        this(nodeCountHiddenLayer1, nodeCountHiddenLayer2, new SplittableRandom());
+    }
+
+    /***
+     * Parametrized constructor creates a NeuralNetEvaluator object with weights of the connections set to small random values drawn from the given generator
+     * @param nodeCountHiddenLayer1 Number of nodes in the first hidden layer of the neural network
+     * @param nodeCountHiddenLayer2 Number of nodes in the second hidden layer of the neural network
+     * @param random The generator of the random weights, the same stream gives the same neural network
+     */
+    public NeuralNetEvaluator(int nodeCountHiddenLayer1, int nodeCountHiddenLayer2, SplittableRandom random) {
         //Set values for the number of nodes in the first and the second hidden layers
         this.nodeCountHiddenLayer1 = nodeCountHiddenLayer1;
         this.nodeCountHiddenLayer2 = nodeCountHiddenLayer2;
@@ -61,12 +79,12 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
         initializeSelfAdaptiveParameter(selfAdaptiveParameterForWeightHidden2ToOutput);
 
         //Initialize all the weights of the weight matrices to a small random value from -0.2 to +0.2
-        initializeWithRandom(weightInputToHidden1);
-        initializeWithRandom(weightHidden1ToHidden2);
-        initializeWithRandom(weightHidden2ToOutput);
+        initializeWithRandom(weightInputToHidden1, random);
+        initializeWithRandom(weightHidden1ToHidden2, random);
+        initializeWithRandom(weightHidden2ToOutput, random);
 
         //Intialize the king value to a random value from 2 to 3
-        kingValue = (float) (Math.random() + 2.0);
+        kingValue = (float) (random.nextDouble() + 2.0);
     }
 
     /***
@@ -75,6 +93,17 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
      * @param parentNeuralNetEvaluator The given parent NeuralNetEvaluator based on whose weights of connections the new NeuralNetEvaluator is to be created
      */
     public NeuralNetEvaluator(NeuralNetEvaluator parentNeuralNetEvaluator, boolean isMutated){
+        this(parentNeuralNetEvaluator, isMutated, new SplittableRandom());
+    }
+
+    /***
+     * Parametrized constructor creates a NeuralNetEvaluator object with weights of the connection set to values
+     * with a small random gaussian value difference from the values of the corresponding weight in the given neural network
+     * All the random changes are drawn from the given generator, so the same parent and the same stream give the same offspring
+     * @param parentNeuralNetEvaluator The given parent NeuralNetEvaluator based on whose weights of connections the new NeuralNetEvaluator is to be created
+     * @param random The generator of the random changes, used by this constructor only
+     */
+    public NeuralNetEvaluator(NeuralNetEvaluator parentNeuralNetEvaluator, boolean isMutated, SplittableRandom random){
         //Set values for the number of nodes in the first and the second hidden layers
         this.nodeCountHiddenLayer1 = parentNeuralNetEvaluator.nodeCountHiddenLayer1;
         this.nodeCountHiddenLayer2 = parentNeuralNetEvaluator.nodeCountHiddenLayer2;
@@ -91,23 +120,30 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
 
         if(!isMutated){
             //Initialize all the weights with a small random gaussian change in the original neural networks' corresponding weights
-            initializeWithGaussianRandomChangeInputToHidden1(parentNeuralNetEvaluator);
-            initializeWithGaussianRandomChangeHidden1ToHidden2(parentNeuralNetEvaluator);
-            initializeWithGaussianRandomChangeHidden2ToOutput(parentNeuralNetEvaluator);
+            initializeWithGaussianRandomChange(parentNeuralNetEvaluator, random);
         }else{
             //Initialize selfAdaptiveParameters
             initializeSelfAdaptiveParameter(selfAdaptiveParameterForWeightInputToHidden1);
             initializeSelfAdaptiveParameter(selfAdaptiveParameterForWeightHidden1ToHidden2);
             initializeSelfAdaptiveParameter(selfAdaptiveParameterForWeightHidden2ToOutput);
 
-            initializeWithRandomChange(parentNeuralNetEvaluator);
+            initializeWithRandomChange(parentNeuralNetEvaluator, random);
         }
 
         //Initialize the king value with a small random change(-0.1 to +0.1) in the original king value
-        this.kingValue = (float) (parentNeuralNetEvaluator.kingValue + Math.random()/5 - 0.1);
+        this.kingValue = (float) (parentNeuralNetEvaluator.kingValue + random.nextDouble()/5 - 0.1);
     }
 
     public NeuralNetEvaluator(NeuralNetEvaluator parent1, NeuralNetEvaluator parent2){
+        this(parent1, parent2, new SplittableRandom());
+    }
+
+    /***
+     * Parametrized constructor creates a NeuralNetEvaluator object taking each weight and its self adaptive parameter from one of the two parents,
+     * the parent being chosen by the given generator
+     * @param random The generator choosing the parent of each weight, the same stream gives the same neural network
+     */
+    public NeuralNetEvaluator(NeuralNetEvaluator parent1, NeuralNetEvaluator parent2, SplittableRandom random){
         //Set values for the number of nodes in the first and the second hidden layers
         this.nodeCountHiddenLayer1 = parent1.nodeCountHiddenLayer1;
         this.nodeCountHiddenLayer2 = parent2.nodeCountHiddenLayer2;
@@ -122,7 +158,7 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
         selfAdaptiveParameterForWeightHidden1ToHidden2 = new float[nodeCountHiddenLayer1+1][nodeCountHiddenLayer2];
         selfAdaptiveParameterForWeightHidden2ToOutput = new float[nodeCountHiddenLayer2+1];
 
-        initializeParametersFromRandomParent(parent1, parent2);
+        initializeParametersFromRandomParent(parent1, parent2, random);
 
     }
 
@@ -180,27 +216,132 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
 
     @Override
     public float evaluate(CheckersBoard checkersBoard){
-        //Get the input from the CheckersBoard object as a 1D array for feeding forward to get the output
-        float[] input = getInputArray(checkersBoard);
+        InferenceWeights weights = getInferenceWeights();
+        InferenceBuffers buffers = getInferenceBuffers().ensureCapacity(weights);
+
+        //Find the output of the first hidden layer from the pieces on the board
+        computeHidden1(checkersBoard, weights, buffers.hidden1);
+
+        //Find the output of the second hidden layer from the output of the first hidden layer
+        computeHidden2(weights, buffers.hidden1, buffers.hidden2);
+
+        //The output of the output layer is the evaluated value of the board
+        return computeOutput(weights, buffers.hidden2);
+    }
+
+    /***
+     * Creates an Accumulator, which keeps the sums of the first hidden layer of this neural network up to date
+     * as moves are made and unmade on the board it is set on
+     * @return A new Accumulator
+     */
+    @Override
+    public Accumulator createBoardListener(){
+        return new Accumulator(this);
+    }
 
-        //Multiply the input array with the weights matrix of input layer to first hidden layer
-        //and then apply the activation function on it to find the output array of the first hidden layer
-        float[] outputOfHidden1 = activationFunction(multiply(input, weightInputToHidden1));
+    /***
+     * Computes the output of the first hidden layer for a board position
+     * If an Accumulator of this neural network is set on the board the output is found from its sums. Otherwise, as only the squares
+     * holding a piece have a non zero input, the weights of the occupied squares are added to the biases one square after another,
+     * in the order of the squares as the inputs were summed by the matrix product
+     * @param checkersBoard The board position
+     * @param weights The flat weights of the neural network
+     * @param hidden1 The vector into which the output is written
+     */
+    private void computeHidden1(CheckersBoard checkersBoard, InferenceWeights weights, float[] hidden1){
+        int nodeCount = weights.hidden1Nodes;
+        Accumulator accumulator = getAccumulator(checkersBoard);
+        if(accumulator != null){
+            int sumStart = accumulator.getSumStart();
+            for (int i = 0; i < nodeCount; i++) {
+                hidden1[i] = activationFunction(accumulator.sums[sumStart+i]);
+            }
+            return;
+        }
+        float[] inputToHidden1 = weights.inputToHidden1;
+        System.arraycopy(weights.hidden1Bias, 0, hidden1, 0, nodeCount);
+        int whitePieces = checkersBoard.getWhitePieces();   //Get the piece masks from the CheckersBoard object
+        int blackPieces = checkersBoard.getBlackPieces();
+        int kings = checkersBoard.getKings();
+        int pieces = whitePieces | blackPieces;
+        while (pieces != 0) {
+            int square = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            float input = inputOf(square, whitePieces, blackPieces, kings);
+            int weightStart = square*nodeCount;
+            for (int i = 0; i < nodeCount; i++) {
+                hidden1[i] += input*inputToHidden1[weightStart+i];
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            hidden1[i] = activationFunction(hidden1[i]);
+        }
+    }
 
-        //Multiply the output array of the first hidden layer with the weight matrix of first hidden layer to second hidden layer
-        //and then apply the activation function on it to find the output array of the second hidden layer
-        float[] outputOfHidden2 = activationFunction(multiply(outputOfHidden1, weightHidden1ToHidden2));
+    /***
+     * Computes the output of the second hidden layer, adding the weighted output of each node of the first hidden layer
+     * to the biases by reading its row of weights in order
+     * @param weights The flat weights of the neural network
+     * @param hidden1 The output of the first hidden layer
+     * @param hidden2 The vector into which the output is written
+     */
+    private static void computeHidden2(InferenceWeights weights, float[] hidden1, float[] hidden2){
+        int inputCount = weights.hidden1Nodes;
+        int nodeCount = weights.hidden2Nodes;
+        float[] hidden1ToHidden2 = weights.hidden1ToHidden2;
+        System.arraycopy(weights.hidden2Bias, 0, hidden2, 0, nodeCount);
+        for (int j = 0; j < inputCount; j++) {
+            float input = hidden1[j];
+            if(input == 0)
+                continue;
+            int weightStart = j*nodeCount;
+            for (int i = 0; i < nodeCount; i++) {
+                hidden2[i] += input*hidden1ToHidden2[weightStart+i];
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            hidden2[i] = activationFunction(hidden2[i]);
+        }
+    }
 
-        //Multiply the output array of the second hidden layer with the weight array of second hidden layer to output layer
-        //and then apply the activation function on it to find the output of the output layer
-        float evaluatedValue = activationFunction(multiply(outputOfHidden2, weightHidden2ToOutput));
+    /***
+     * @param weights The flat weights of the neural network
+     * @param hidden2 The outputs of the second hidden layer
+     * @return The output of the neural network for the board
+     */
+    private static float computeOutput(InferenceWeights weights, float[] hidden2){
+        float sum = weights.outputBias;
+        float[] hidden2ToOutput = weights.hidden2ToOutput;
+        for (int i = 0; i < hidden2ToOutput.length; i++) {
+            sum += hidden2[i]*hidden2ToOutput[i];
+        }
+        return activationFunction(sum);
+    }
 
-        //The output of the neural network thus found is the evaluated value of the board
-        return evaluatedValue;
+    /***
+     * @return The flat weights of the neural network, created the first time they are needed
+     */
+    InferenceWeights getInferenceWeights(){
+        if(inferenceWeights == null){
+            synchronized (this){
+                if(inferenceWeights == null)
+                    inferenceWeights = new InferenceWeights(this);
+            }
+        }
+        return inferenceWeights;
     }
 
-    private void initializeParametersFromRandomParent(NeuralNetEvaluator parent1, NeuralNetEvaluator parent2) {
-        Random random = new Random();
+    private InferenceBuffers getInferenceBuffers(){
+        if(inferenceBuffers == null){
+            synchronized (this){
+                if(inferenceBuffers == null)
+                    inferenceBuffers = ThreadLocal.withInitial(InferenceBuffers::new);
+            }
+        }
+        return inferenceBuffers.get();
+    }
+
+    private void initializeParametersFromRandomParent(NeuralNetEvaluator parent1, NeuralNetEvaluator parent2, SplittableRandom random) {
         for (int i = 0; i < parent1.weightInputToHidden1.length; i++) {
             for (int j = 0; j < parent1.weightInputToHidden1[0].length; j++) {
                 boolean randomBoolean = random.nextBoolean();
@@ -243,8 +384,7 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
         }
     }
 
-    private void initializeWithRandomChange(NeuralNetEvaluator parent){
-        Random random = new Random();
+    private void initializeWithRandomChange(NeuralNetEvaluator parent, SplittableRandom random){
         for (int i = 0; i < weightInputToHidden1.length; i++) {
             for (int j = 0; j < weightInputToHidden1[0].length; j++) {
                 this.weightInputToHidden1[i][j] = (float) (parent.weightInputToHidden1[i][j] + random.nextGaussian());
@@ -263,72 +403,54 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
     }
 
     /***
-     * Sets the weights of the new neural network for the connections from Input Layer to the First Hidden Layer
-     * by making a small random gaussian change in the value of weights of the parent neural network
-     * and the corresponding step value given by the selfAdaptiveParameter
+     * Sets the weights of the new neural network by making a small random gaussian change in the value of weights of the parent
+     * neural network and the corresponding step value given by the selfAdaptiveParameter, one row of the weight matrices at a time
      * @param parent The parent NeuralNetEvaluator
+     * @param random The generator of the gaussian changes
      */
-    private void initializeWithGaussianRandomChangeInputToHidden1(NeuralNetEvaluator parent){
-        Random random = new Random();   //Create a random seed
-        //Loop through all the individual weights in the weight matrix
+    private void initializeWithGaussianRandomChange(NeuralNetEvaluator parent, SplittableRandom random){
+        double[] gaussians = new double[Math.max(Math.max(weightInputToHidden1[0].length, weightHidden1ToHidden2[0].length), weightHidden2ToOutput.length)];
         for (int i = 0; i < parent.weightInputToHidden1.length; i++) {
-            for (int j = 0; j < parent.weightInputToHidden1[0].length; j++) {
-                double randomValue = random.nextGaussian(); //Find a randomly generated gaussian variable
-                //Update the self adaptive parameters in the newly created child
-                this.selfAdaptiveParameterForWeightInputToHidden1[i][j] = (float) (parent.selfAdaptiveParameterForWeightInputToHidden1[i][j]*Math.exp(0.1103*randomValue));
-                //Update the weight in the newly created child
-                this.weightInputToHidden1[i][j] = (float) (parent.weightInputToHidden1[i][j] + this.selfAdaptiveParameterForWeightInputToHidden1[i][j]*randomValue);
-                //this.weightInputToHidden1[i][j] = (float) (parent.weightInputToHidden1[i][j] + randomValue);
-            }
+            perturbRow(parent.weightInputToHidden1[i], parent.selfAdaptiveParameterForWeightInputToHidden1[i],
+                    this.weightInputToHidden1[i], this.selfAdaptiveParameterForWeightInputToHidden1[i], gaussians, random);
         }
-    }
-
-    /***
-     * Sets the weights of the new neural network for the connections from First Hidden Layer to the Second Hidden Layer
-     * by making a small random gaussian change in the value of weights of the parent neural network
-     * and the corresponding step value given by the selfAdaptiveParameter
-     * @param parent The parent NeuralNetEvaluator
-     */
-    private void initializeWithGaussianRandomChangeHidden1ToHidden2(NeuralNetEvaluator parent){
-        Random random = new Random();   //Create a random seed
-        //Loop through all the individual weights in the weight matrix
         for (int i = 0; i < parent.weightHidden1ToHidden2.length; i++) {
-            for (int j = 0; j < parent.weightHidden1ToHidden2[0].length; j++) {
-                double randomValue = random.nextGaussian(); //Find a randomly generated gaussian variable
-                //Update the self adaptive parameters in the newly created child
-                this.selfAdaptiveParameterForWeightHidden1ToHidden2[i][j] = (float) (parent.selfAdaptiveParameterForWeightHidden1ToHidden2[i][j]*Math.exp(0.1103*randomValue));
-                //Update the weight in the newly created child
-                this.weightHidden1ToHidden2[i][j] = (float) (parent.weightHidden1ToHidden2[i][j] + this.selfAdaptiveParameterForWeightHidden1ToHidden2[i][j]*randomValue);
-                //this.weightHidden1ToHidden2[i][j] = (float) (parent.weightHidden1ToHidden2[i][j] + randomValue);
-            }
+            perturbRow(parent.weightHidden1ToHidden2[i], parent.selfAdaptiveParameterForWeightHidden1ToHidden2[i],
+                    this.weightHidden1ToHidden2[i], this.selfAdaptiveParameterForWeightHidden1ToHidden2[i], gaussians, random);
         }
+        perturbRow(parent.weightHidden2ToOutput, parent.selfAdaptiveParameterForWeightHidden2ToOutput,
+                this.weightHidden2ToOutput, this.selfAdaptiveParameterForWeightHidden2ToOutput, gaussians, random);
     }
 
     /***
-     * Sets the weights of the new neural network for the connections from Second Hidden Layer to the Output Layer
-     * by making a small random gaussian change in the value of weights of the parent neural network
-     * and the corresponding step value given by the selfAdaptiveParameter
-     * @param parent The parent NeuralNetEvaluator
+     * Sets a row of weights and of self adaptive parameters from the row of the parent
+     * The self adaptive parameter of each weight is multiplied by exp(0.1103*g), g being a gaussian random value, and the weight is changed
+     * by the new parameter times g. The gaussian values of the row are drawn first, so that the loops applying them do not call the
+     * generator and the last one is compiled into vector instructions.
+     * @param parentWeights, parentSteps The row of weights and of self adaptive parameters of the parent
+     * @param weights, steps The row of weights and of self adaptive parameters of the new neural network
+     * @param gaussians Scratch array at least as long as the row
+     * @param random The generator of the gaussian values
      */
-    private void initializeWithGaussianRandomChangeHidden2ToOutput(NeuralNetEvaluator parent){
-        Random random = new Random();   //Create a random seed
-        //Loop through all the individual weights in the weight matrix
-        for (int i = 0; i < parent.weightHidden2ToOutput.length; i++) {
-            double randomValue = random.nextGaussian(); //Find a randomly generated gaussian variable
-            //Update the self adaptive parameters in the newly created child
-            this.selfAdaptiveParameterForWeightHidden2ToOutput[i] = (float) (parent.selfAdaptiveParameterForWeightHidden2ToOutput[i]*Math.exp(0.1103*randomValue));
-            //Update the weight in the newly created child
-            this.weightHidden2ToOutput[i] = (float) (parent.weightHidden2ToOutput[i] + this.selfAdaptiveParameterForWeightHidden2ToOutput[i]*randomValue);
-            //this.weightHidden2ToOutput[i] = (float) (parent.weightHidden2ToOutput[i]+randomValue);
+    private static void perturbRow(float[] parentWeights, float[] parentSteps, float[] weights, float[] steps, double[] gaussians, SplittableRandom random){
+        int length = weights.length;
+        for (int i = 0; i < length; i++) {
+            gaussians[i] = random.nextGaussian();
+        }
+        for (int i = 0; i < length; i++) {
+            steps[i] = (float) (parentSteps[i]*Math.exp(0.1103*gaussians[i]));
+        }
+        for (int i = 0; i < length; i++) {
+            weights[i] = (float) (parentWeights[i] + steps[i]*gaussians[i]);
         }
     }
 
     /***
      * Initializes all the cells of a 2D matrix with random values from -0.2 to +0.2
      * @param weights The matrix to be initialized
+     * @param random The generator of the random values
      */
-    private void initializeWithRandom(float[][] weights){
-        Random random = new Random();   //Create a random seed
+    private void initializeWithRandom(float[][] weights, SplittableRandom random){
         //Loop through all the individual weights in the weight matrix
         for (int i = 0; i < weights.length; i++) {
             for (int j = 0; j < weights[0].length; j++) {
@@ -341,9 +463,9 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
     /***
      * Initializes all the cells of a 1D matrix with random values from -0.2 to +0.2
      * @param weights The matrix to be initialized
+     * @param random The generator of the random values
      */
-    private void initializeWithRandom(float[] weights){
-        Random random = new Random();   //Create a random seed
+    private void initializeWithRandom(float[] weights, SplittableRandom random){
         //Loop through all the individual weights in the weight matrix
         for (int i = 0; i < weights.length; i++) {
             //Get a random value from -0.2 to +0.2 and store it in the weight matrix
@@ -352,90 +474,221 @@ public class NeuralNetEvaluator implements Serializable, Evaluator {
     }
 
     /***
-     * Returns a float array as the input matrix for the neural network for a given board position
-     * @param checkersBoard The given CheckersBoard object which represents the current board position
-     * @return 1D float array representing the input array to be fed into the neural network
+     * Apply activation function i.e. tanh() on one element
+     * tanh(x) is computed as 1 - 2/(e^(2x) + 1) in double precision, which is several times faster than Math.tanh()
+     * and gives the same float value, or one differing in the last bit. The subtraction loses the low bits of tanh(x) for x close to 0,
+     * so below smallInput, where tanh(x) rounds to x itself as a float, x is returned instead
+     * @param x The element on which activation function is to be applied
+     * @return The value after the activation is applied on the given element
+     */
+    public static float activationFunction(float x){
+        if(Math.abs(x) < smallInput)
+            return x;
+        return (float) (1.0 - 2.0/(Math.exp(2.0*x) + 1.0));
+    }
+
+    /***
+     * InferenceWeights holds the weights of a neural network in flat arrays for its evaluation, made from the weight matrices the first
+     * time it is evaluated. The weights of each input node are stored next to each other, so that the weighted input of a node is added
+     * to all the nodes of the next layer by reading the weights in order, where the matrices were read column by column.
+     * The bias node is kept apart as an array of biases. As in the original matrix product, the bias node of a hidden layer also goes
+     * through the activation function, so the biases of the next layer are its weights multiplied by tanh(1).
+     * Member Variables:
+     *              hidden1Nodes, hidden2Nodes - The number of nodes of the first and the second hidden layer
+     *              inputToHidden1 - The weights from the input layer to the first hidden layer, the row of each square after another
+     *              hidden1Bias - The weights from the bias node of the input layer to the first hidden layer
+     *              hidden1ToHidden2 - The weights from the first hidden layer to the second hidden layer, one row for each node of the first
+     *              hidden2Bias - The bias of each node of the second hidden layer
+     *              hidden2ToOutput - The weights from the second hidden layer to the output node
+     *              outputBias - The bias of the output node
      */
-    private float[] getInputArray(CheckersBoard checkersBoard){
-        float[] input = new float[inputNodes+1];  //Create a 1D float array representing the input for the neural network
-        input[0] = 1; //bias
-        int index = 1;  //index counter to store values at each index in the input array
-        Piece[][] board = checkersBoard.getBoard(); //Get the Piece matrix from the CheckersBoard object
-        //Loop through all the squares
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if ((i + j) % 2 != 0) {     //Pieces are present only on the squares whose sum of row and column index is odd
-                    if(board[i][j] == Piece.WHITE_PAWN)         //For WHITE PAWN input value is +1
-                        input[index] = 1;
-                    else if(board[i][j] == Piece.BLACK_PAWN)    //For BLACK PAWN input value is -1
-                        input[index] = -1;
-                    else if(board[i][j] == Piece.WHITE_KING)    //For WHITE KING input value is positive value of the king value according to this neural network
-                        input[index] = kingValue;
-                    else if(board[i][j] == Piece.BLACK_KING)    //For BLACK KING input value is negative value of the king value according to this neural network
-                        input[index] = -1*kingValue;
-                    else
-                        input[index] = 0;                       //For EMPTY space input value is 0
-                    index++;
-                }
+    static final class InferenceWeights {
+        final int hidden1Nodes, hidden2Nodes;
+        final float[] inputToHidden1, hidden1Bias;
+        final float[] hidden1ToHidden2, hidden2Bias;
+        final float[] hidden2ToOutput;
+        final float outputBias;
+
+        private InferenceWeights(NeuralNetEvaluator neuralNetEvaluator){
+            float[][] weightInputToHidden1 = neuralNetEvaluator.weightInputToHidden1;
+            float[][] weightHidden1ToHidden2 = neuralNetEvaluator.weightHidden1ToHidden2;
+            float[] weightHidden2ToOutput = neuralNetEvaluator.weightHidden2ToOutput;
+            hidden1Nodes = weightInputToHidden1[0].length;
+            hidden2Nodes = weightHidden1ToHidden2[0].length;
+            float activatedBias = activationFunction(1);
+
+            hidden1Bias = weightInputToHidden1[0].clone();
+            inputToHidden1 = new float[inputNodes*hidden1Nodes];
+            for (int square = 0; square < inputNodes; square++) {
+                System.arraycopy(weightInputToHidden1[square+1], 0, inputToHidden1, square*hidden1Nodes, hidden1Nodes);
+            }
+
+            hidden2Bias = new float[hidden2Nodes];
+            for (int i = 0; i < hidden2Nodes; i++) {
+                hidden2Bias[i] = activatedBias*weightHidden1ToHidden2[0][i];
+            }
+            hidden1ToHidden2 = new float[hidden1Nodes*hidden2Nodes];
+            for (int j = 0; j < hidden1Nodes; j++) {
+                System.arraycopy(weightHidden1ToHidden2[j+1], 0, hidden1ToHidden2, j*hidden2Nodes, hidden2Nodes);
             }
-        }
 
-        return input;
+            outputBias = activatedBias*weightHidden2ToOutput[0];
+            hidden2ToOutput = Arrays.copyOfRange(weightHidden2ToOutput, 1, hidden2Nodes+1);
+        }
     }
 
     /***
-     * Apply activation function i.e. tanh() on each element of a 1D array
-     * @param A The 1D array on which activation function is to be applied
-     * @return The new 1D array with elements as value after the activation is applied on that element of the given array
+     * @param checkersBoard A board position
+     * @return The Accumulator of this neural network set on the board, or null if the board has none
      */
-    private static float[] activationFunction(float[] A){
-        float[] result = new float[A.length];   //Create a 1D float array to store the resulting array after applying the activation function
-        //Loop through all the elements of the array
-        for (int i = 0; i < A.length; i++) {
-            result[i] = (float) Math.tanh(A[i]);    //Apply tanh() on each element
-        }
-        return result;
+    Accumulator getAccumulator(CheckersBoard checkersBoard){
+        BoardListener boardListener = checkersBoard.getBoardListener();
+        if(boardListener instanceof Accumulator && ((Accumulator) boardListener).neuralNetEvaluator == this)
+            return (Accumulator) boardListener;
+        return null;
     }
 
     /***
-     * Apply activation function i.e. tanh() on one element
-     * @param x The element on which activation function is to be applied
-     * @return The value after the activation is applied on the given element
+     * @return The input of the neural network for the given square, 1 for a White pawn, the king value for a White king,
+     *         and the negative of these for the Black pieces
      */
-    public static float activationFunction(float x){
-        return (float) Math.tanh(x);
+    float inputOf(int square, int whitePieces, int blackPieces, int kings){
+        int bit = 1 << square;
+        float input = (kings & bit) != 0 ? kingValue : 1;
+        if((whitePieces & bit) != 0)
+            return input;
+        return (blackPieces & bit) != 0 ? -input : 0;
     }
 
     /***
-     * Multiplies two 2D matrices and returns the product matrix
-     * @param A First matrix in the product
-     * @param B Second matrix in the product
-     * @return The product matrix found after multiplying first matrix by the second matrix
+     * Accumulator keeps the sums of the first hidden layer of a NeuralNetEvaluator, before the activation function, up to date for the
+     * board it is set on as BoardListener. Between a position and the next one only the inputs of the few squares changed by the move
+     * differ, so the sums are found from those of the previous position by adding the change of the input of each changed square times
+     * its weights, a promotion being the change of the input from 1 to the king value. The evaluation of the board then starts from these
+     * sums, leaving only the activation and the second hidden layer to be computed.
+     * The sums of each position reached by makeMove() are kept on a stack, so unmakeMove() goes back to the sums of the previous position
+     * as they were and no rounding error builds up. As the sums are built in another order than by evaluate() from scratch, the value of a
+     * board can differ from it in the last bits.
+     * Member Variables:
+     *              neuralNetEvaluator - The neural network whose sums are kept
+     *              weights - The flat weights of the neural network
+     *              sums - The stack of the sums of the positions, nodeCount floats for each position
+     *              masks - The stack of the piece masks of the positions, three ints for each position
+     *              depth - The index of the current position in the stacks
      */
-    private static float[] multiply(float[] A, float[][] B){
-        float[] P = new float[B[0].length+1];
-        P[0] = 1;
-        for(int i=0; i<B[0].length; i++){
-            float sum = 0;
-            for (int j = 0; j < A.length; j++) {
-                sum += A[j]*B[j][i];
+    public static final class Accumulator implements BoardListener {
+        private final NeuralNetEvaluator neuralNetEvaluator;
+        private final InferenceWeights weights;
+        private float[] sums;
+        private int[] masks;
+        private int depth;
+
+        private Accumulator(NeuralNetEvaluator neuralNetEvaluator){
+            this.neuralNetEvaluator = neuralNetEvaluator;
+            this.weights = neuralNetEvaluator.getInferenceWeights();
+            this.sums = new float[32*weights.hidden1Nodes];
+            this.masks = new int[3*32];
+        }
+
+        /***
+         * @return The stack of the sums of the positions
+         */
+        float[] getSums() {
+            return sums;
+        }
+
+        /***
+         * @return The index in the stack at which the sums of the current position start
+         */
+        int getSumStart() {
+            return depth*weights.hidden1Nodes;
+        }
+
+        @Override
+        public void moveMade(CheckersBoard checkersBoard) {
+            int nodeCount = weights.hidden1Nodes;
+            if(3*(depth+2) > masks.length){
+                sums = Arrays.copyOf(sums, 2*sums.length);
+                masks = Arrays.copyOf(masks, 2*masks.length);
+            }
+            int sumStart = (depth+1)*nodeCount;
+            System.arraycopy(sums, depth*nodeCount, sums, sumStart, nodeCount);
+            int oldWhitePieces = masks[3*depth], oldBlackPieces = masks[3*depth+1], oldKings = masks[3*depth+2];
+            depth++;
+            int whitePieces = checkersBoard.getWhitePieces();
+            int blackPieces = checkersBoard.getBlackPieces();
+            int kings = checkersBoard.getKings();
+            masks[3*depth] = whitePieces;
+            masks[3*depth+1] = blackPieces;
+            masks[3*depth+2] = kings;
+
+            //Add the change of the input of each square changed by the move times the weights of the square
+            int changed = (oldWhitePieces ^ whitePieces) | (oldBlackPieces ^ blackPieces) | (oldKings ^ kings);
+            float[] inputToHidden1 = weights.inputToHidden1;
+            while (changed != 0) {
+                int square = Integer.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                float change = neuralNetEvaluator.inputOf(square, whitePieces, blackPieces, kings)
+                        - neuralNetEvaluator.inputOf(square, oldWhitePieces, oldBlackPieces, oldKings);
+                int weightStart = square*nodeCount;
+                for (int i = 0; i < nodeCount; i++) {
+                    sums[sumStart+i] += change*inputToHidden1[weightStart+i];
+                }
+            }
+        }
+
+        @Override
+        public void moveUnmade(CheckersBoard checkersBoard) {
+            //A move made before the accumulator was set has no sums on the stack, so they are computed from scratch
+            if(depth == 0)
+                positionSet(checkersBoard);
+            else
+                depth--;
+        }
+
+        @Override
+        public void positionSet(CheckersBoard checkersBoard) {
+            depth = 0;
+            int whitePieces = checkersBoard.getWhitePieces();
+            int blackPieces = checkersBoard.getBlackPieces();
+            int kings = checkersBoard.getKings();
+            masks[0] = whitePieces;
+            masks[1] = blackPieces;
+            masks[2] = kings;
+            int nodeCount = weights.hidden1Nodes;
+            System.arraycopy(weights.hidden1Bias, 0, sums, 0, nodeCount);
+            int pieces = whitePieces | blackPieces;
+            while (pieces != 0) {
+                int square = Integer.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                float input = neuralNetEvaluator.inputOf(square, whitePieces, blackPieces, kings);
+                for (int i = 0; i < nodeCount; i++) {
+                    sums[i] += input*weights.inputToHidden1[square*nodeCount+i];
+                }
             }
-            P[i+1] = sum;
         }
-        return P;
     }
 
     /***
-     * Multiplies two 1D matrices and returns their dot product
-     * @param A First matrix in the product
-     * @param B Second matrix in the product
-     * @return The dot product found after multiplying first matrix by the second matrix
+     * InferenceBuffers holds the scratch vectors of the evaluations made by one thread
+     * Member Variables:
+     *              hidden1 - The output of the first hidden layer
+     *              hidden2 - The output of the second hidden layer
      */
-    private static float multiply(float[] A, float[] B){
-        float product = 0;
-        for (int i = 0; i < A.length; i++) {
-            product += A[i]*B[i];
+    private static final class InferenceBuffers {
+        private float[] hidden1 = new float[0];
+        private float[] hidden2 = new float[0];
+
+        /***
+         * Grows the vectors if they are too small for the given neural network
+         * @return This InferenceBuffers object
+         */
+        private InferenceBuffers ensureCapacity(InferenceWeights weights){
+            if(hidden1.length < weights.hidden1Nodes)
+                hidden1 = new float[weights.hidden1Nodes];
+            if(hidden2.length < weights.hidden2Nodes)
+                hidden2 = new float[weights.hidden2Nodes];
+            return this;
         }
-        return product;
     }
 }
@@ -1,7 +1,6 @@
 package Players.Evaluator;
 
 import Checkers.CheckersBoard;
-import Checkers.Piece;
 
 /***
  * StaticEvaluator class is an Players.Evaluator which finds the value of the board position based on the difference of material present on the board
@@ -14,23 +13,12 @@ import Checkers.Piece;
 public class StaticEvaluator implements Evaluator {
     @Override
     public float evaluate(CheckersBoard checkersBoard) {
-        float evaluationValue = 0;      //evaluationValue stores the evaluated value of board position, it is initialized with 0
-        Piece[][] board = checkersBoard.getBoard(); //Get the board postion
-        //Loop through all the squares in the board
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if ((i + j) % 2 != 0){      //Pieces are present only on square whose sum of row and column index is odd
-                    if(board[i][j] == Piece.WHITE_PAWN)         //WHITE PAWN has a value +1
-                        evaluationValue += 1;
-                    else if(board[i][j] == Piece.BLACK_PAWN)    //BLACK PAWN has a value -1
-                        evaluationValue += -1;
-                    else if(board[i][j] == Piece.WHITE_KING)    //WHITE KING has a value +3
-                        evaluationValue += 3;
-                    else if(board[i][j] == Piece.BLACK_KING)    //BLACK KING has a value -3
-                        evaluationValue += -3;
-                }
-            }
-        }
+        int whitePieces = checkersBoard.getWhitePieces();    //Get the masks of the board position
+        int blackPieces = checkersBoard.getBlackPieces();
+        int kings = checkersBoard.getKings();
+        //Count the pieces of each type, a WHITE PAWN has a value +1, BLACK PAWN -1, WHITE KING +3 and BLACK KING -3
+        float evaluationValue = Integer.bitCount(whitePieces & ~kings) - Integer.bitCount(blackPieces & ~kings)
+                + 3*(Integer.bitCount(whitePieces & kings) - Integer.bitCount(blackPieces & kings));
         return  evaluationValue/36;     //Return the normalized evaluated value by dividing by 24
     }
 }
@@ -0,0 +1,223 @@
+package Players.Evaluator;
+
+import Checkers.BoardListener;
+import Checkers.CheckersBoard;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.io.Serializable;
+
+/***
+ * VectorNeuralNetEvaluator evaluates the board position by the neural network of a NeuralNetEvaluator with the SIMD instructions of the
+ * processor, through the Vector API of the jdk.incubator.vector module.
+ * The nodes of a layer are computed a vector of lanes at a time. The weights are copied into flat arrays whose rows are padded with zeros
+ * to a whole number of vectors, so that no lane is masked: a padding node of the first hidden layer has a sum of 0 and an output of 0,
+ * and the padding nodes of the second hidden layer have a weight of 0 to the output node.
+ * The sums are built with the same products added in the same order as by NeuralNetEvaluator.evaluate(), so they are the same in each lane.
+ * The value differs only as the hyperbolic tangent of the Vector API and the sum over the lanes of the output are rounded differently,
+ * by at most the tolerance field, which TestVectorNeuralNetEvaluator checks.
+ * The Vector API is looked for when the class is loaded. If the jdk.incubator.vector module is not in the boot layer, as when the program
+ * is run without --add-modules jdk.incubator.vector, or if the processor has no vectors of at least four floats, evaluate() falls back to
+ * the scalar evaluation of the NeuralNetEvaluator. The module is needed to compile the class in any case.
+ * Member Variables:
+ *              neuralNetEvaluator - The NeuralNetEvaluator whose neural network is evaluated
+ *              vectorWeights - The padded flat copies of the weights, created when first evaluated
+ *              hidden1Buffers - The scratch array of the output of the first hidden layer for each thread, created when first used
+ */
+public class VectorNeuralNetEvaluator implements Serializable, Evaluator {
+    private static final long serialVersionUID = 1L;
+
+    public static final float tolerance = 1e-5f;    //The largest difference from the value of NeuralNetEvaluator.evaluate()
+    private static final int minimumLaneCount = 4;  //Shorter vectors are not worth using
+    private static final boolean isVectorApiAvailable = detectVectorApi();
+
+    private final NeuralNetEvaluator neuralNetEvaluator;
+    private transient volatile VectorWeights vectorWeights;
+    private transient volatile ThreadLocal<float[]> hidden1Buffers;
+
+    /***
+     * Parametrized constructor creates a VectorNeuralNetEvaluator for the neural network of the given NeuralNetEvaluator
+     * @param neuralNetEvaluator The NeuralNetEvaluator whose neural network is evaluated, its weights must not be changed afterwards
+     */
+    public VectorNeuralNetEvaluator(NeuralNetEvaluator neuralNetEvaluator) {
+        this.neuralNetEvaluator = neuralNetEvaluator;
+    }
+
+    /***
+     * Getter method for the neuralNetEvaluator member field
+     * @return The NeuralNetEvaluator whose neural network is evaluated
+     */
+    public NeuralNetEvaluator getNeuralNetEvaluator() {
+        return neuralNetEvaluator;
+    }
+
+    /***
+     * @return True if the evaluation uses the Vector API, false if it falls back to the scalar evaluation of the NeuralNetEvaluator
+     */
+    public static boolean isVectorApiAvailable() {
+        return isVectorApiAvailable;
+    }
+
+    /***
+     * @return The number of floats in a vector of the Vector API, 0 if it is not available
+     */
+    public static int getLaneCount() {
+        return isVectorApiAvailable ? VectorKernel.laneCount() : 0;
+    }
+
+    private static boolean detectVectorApi() {
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return false;
+        try {
+            return VectorKernel.laneCount() >= minimumLaneCount;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    @Override
+    public float evaluate(CheckersBoard checkersBoard) {
+        if(!isVectorApiAvailable)
+            return neuralNetEvaluator.evaluate(checkersBoard);
+        VectorWeights weights = getVectorWeights();
+        float[] hidden1 = getHidden1Buffer();
+
+        //Start from the sums of the Accumulator of the neural network if it is set on the board
+        NeuralNetEvaluator.Accumulator accumulator = neuralNetEvaluator.getAccumulator(checkersBoard);
+        if(accumulator != null)
+            System.arraycopy(accumulator.getSums(), accumulator.getSumStart(), hidden1, 0, weights.hidden1Nodes);
+        return VectorKernel.evaluate(weights, accumulator != null, checkersBoard.getWhitePieces(), checkersBoard.getBlackPieces(),
+                checkersBoard.getKings(), neuralNetEvaluator, hidden1);
+    }
+
+    /***
+     * Creates the Accumulator of the neural network, whose sums are used as they are by evaluate()
+     * @return A new Accumulator
+     */
+    @Override
+    public BoardListener createBoardListener() {
+        return neuralNetEvaluator.createBoardListener();
+    }
+
+    private VectorWeights getVectorWeights() {
+        if(vectorWeights == null){
+            synchronized (this){
+                if(vectorWeights == null)
+                    vectorWeights = new VectorWeights(neuralNetEvaluator.getInferenceWeights(), VectorKernel.laneCount());
+            }
+        }
+        return vectorWeights;
+    }
+
+    private float[] getHidden1Buffer() {
+        if(hidden1Buffers == null){
+            synchronized (this){
+                if(hidden1Buffers == null){
+                    int paddedNodes = getVectorWeights().paddedHidden1Nodes;
+                    hidden1Buffers = ThreadLocal.withInitial(() -> new float[paddedNodes]);
+                }
+            }
+        }
+        return hidden1Buffers.get();
+    }
+
+    /***
+     * VectorWeights holds the flat weights of the neural network with each row padded with zeros to a whole number of vectors
+     * Member Variables:
+     *              hidden1Nodes, hidden2Nodes - The number of nodes of the first and the second hidden layer
+     *              paddedHidden1Nodes, paddedHidden2Nodes - The length of the padded rows of the first and the second hidden layer
+     *              inputToHidden1, hidden1Bias, hidden1ToHidden2, hidden2Bias, hidden2ToOutput, outputBias - The weights as in the
+     *                                                                      InferenceWeights of NeuralNetEvaluator, with padded rows
+     */
+    static final class VectorWeights {
+        final int hidden1Nodes, hidden2Nodes;
+        final int paddedHidden1Nodes, paddedHidden2Nodes;
+        final float[] inputToHidden1, hidden1Bias;
+        final float[] hidden1ToHidden2, hidden2Bias;
+        final float[] hidden2ToOutput;
+        final float outputBias;
+
+        private VectorWeights(NeuralNetEvaluator.InferenceWeights weights, int laneCount) {
+            hidden1Nodes = weights.hidden1Nodes;
+            hidden2Nodes = weights.hidden2Nodes;
+            paddedHidden1Nodes = (hidden1Nodes + laneCount - 1)/laneCount*laneCount;
+            paddedHidden2Nodes = (hidden2Nodes + laneCount - 1)/laneCount*laneCount;
+
+            hidden1Bias = padRows(weights.hidden1Bias, 1, hidden1Nodes, paddedHidden1Nodes);
+            inputToHidden1 = padRows(weights.inputToHidden1, NeuralNetEvaluator.getInputNodes(), hidden1Nodes, paddedHidden1Nodes);
+            hidden2Bias = padRows(weights.hidden2Bias, 1, hidden2Nodes, paddedHidden2Nodes);
+            hidden1ToHidden2 = padRows(weights.hidden1ToHidden2, hidden1Nodes, hidden2Nodes, paddedHidden2Nodes);
+            hidden2ToOutput = padRows(weights.hidden2ToOutput, 1, hidden2Nodes, paddedHidden2Nodes);
+            outputBias = weights.outputBias;
+        }
+
+        private static float[] padRows(float[] rows, int rowCount, int rowLength, int paddedRowLength) {
+            float[] paddedRows = new float[rowCount*paddedRowLength];
+            for (int row = 0; row < rowCount; row++) {
+                System.arraycopy(rows, row*rowLength, paddedRows, row*paddedRowLength, rowLength);
+            }
+            return paddedRows;
+        }
+    }
+
+    /***
+     * VectorKernel holds the code using the Vector API, apart from the rest of the class so that the classes of the
+     * jdk.incubator.vector module are only loaded when it is available
+     */
+    private static final class VectorKernel {
+        private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+        private static int laneCount() {
+            return SPECIES.length();
+        }
+
+        /***
+         * Evaluates a board position
+         * @param weights The padded flat weights of the neural network
+         * @param isAccumulated True if hidden1 already holds the sums of the first hidden layer, false to compute them from the pieces
+         * @param neuralNetEvaluator The neural network, which gives the input of each occupied square
+         * @param hidden1 The scratch array of the output of the first hidden layer, its padding is kept at 0
+         * @return The output of the neural network for the board
+         */
+        private static float evaluate(VectorWeights weights, boolean isAccumulated, int whitePieces, int blackPieces, int kings,
+                                      NeuralNetEvaluator neuralNetEvaluator, float[] hidden1) {
+            int laneCount = SPECIES.length();
+            int paddedHidden1Nodes = weights.paddedHidden1Nodes;
+            int paddedHidden2Nodes = weights.paddedHidden2Nodes;
+
+            //First hidden layer, the weights of the occupied squares are added to the biases in the order of the squares
+            float[] inputToHidden1 = weights.inputToHidden1;
+            int pieces = whitePieces | blackPieces;
+            for (int i = 0; i < paddedHidden1Nodes; i += laneCount) {
+                FloatVector sum;
+                if(isAccumulated){
+                    sum = FloatVector.fromArray(SPECIES, hidden1, i);
+                }else{
+                    sum = FloatVector.fromArray(SPECIES, weights.hidden1Bias, i);
+                    for (int remaining = pieces; remaining != 0; remaining &= remaining - 1) {
+                        int square = Integer.numberOfTrailingZeros(remaining);
+                        float input = neuralNetEvaluator.inputOf(square, whitePieces, blackPieces, kings);
+                        sum = sum.add(FloatVector.fromArray(SPECIES, inputToHidden1, square*paddedHidden1Nodes + i).mul(input));
+                    }
+                }
+                sum.lanewise(VectorOperators.TANH).intoArray(hidden1, i);
+            }
+
+            //Second hidden layer and output node, the vector of output products is summed over its lanes at the end
+            float[] hidden1ToHidden2 = weights.hidden1ToHidden2;
+            FloatVector output = FloatVector.zero(SPECIES);
+            for (int i = 0; i < paddedHidden2Nodes; i += laneCount) {
+                FloatVector sum = FloatVector.fromArray(SPECIES, weights.hidden2Bias, i);
+                for (int j = 0; j < weights.hidden1Nodes; j++) {
+                    float input = hidden1[j];
+                    if(input == 0)
+                        continue;
+                    sum = sum.add(FloatVector.fromArray(SPECIES, hidden1ToHidden2, j*paddedHidden2Nodes + i).mul(input));
+                }
+                output = output.add(sum.lanewise(VectorOperators.TANH).mul(FloatVector.fromArray(SPECIES, weights.hidden2ToOutput, i)));
+            }
+            return NeuralNetEvaluator.activationFunction(weights.outputBias + output.reduceLanes(VectorOperators.ADD));
+        }
+    }
+}
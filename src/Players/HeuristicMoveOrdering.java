@@ -0,0 +1,153 @@
+package Players;
+
+import Checkers.Alliance;
+import Checkers.CheckersBoard;
+import Checkers.MoveBuffer;
+import Checkers.PackedMove;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/***
+ * HeuristicMoveOrdering is the default MoveOrdering of AlphaBetaPlayer, it orders the moves of a position in the following stages:
+ *              HASH_MOVE - The move stored in the TranspositionTable for the position is searched first
+ *              CAPTURE - Jump moves capturing more material are searched before those capturing less, a king counting as 1.5 pawns
+ *              KILLER - The last two simple moves which caused a cutoff at the same ply are searched next
+ *              HISTORY - The other simple moves are searched in decreasing order of their history score, which increases by
+ *                        the square of the depth every time the move from the same square to the same square causes a cutoff
+ * Each move is given a score which puts it within its stage, and the moves are sorted by their scores. Moves with the same
+ * score keep the order in which they were generated. The stages can be turned off by leaving them out of the enabled stages.
+ */
+public class HeuristicMoveOrdering implements MoveOrdering {
+    //Base scores of the stages, the score of a move within its stage is added to the base score of its stage
+    private static final int hashMoveScore = 1 << 30;
+    private static final int captureScore = 1 << 29;
+    private static final int killerScore = 1 << 28;
+    private static final int maximumHistoryScore = killerScore - 1;
+    private static final int pawnValue = 2, kingValue = 3;     //Material gained by capturing a pawn and a king, a king is worth 1.5 pawns
+
+    private final boolean useHashMove, useCaptures, useKillers, useHistory;
+
+    private long[] killers = new long[2*16];                 //killers[2*ply] and killers[2*ply+1] are the killer moves of a ply
+    private final int[][] history = new int[2][32*32];      //history[alliance][initialSquare*32 + finalSquare]
+    private int[][] scores = new int[16][];                 //scores[ply] holds the scores of the ordered moves of a ply
+    private Stage[][] stages = new Stage[16][];             //stages[ply] holds the stages of the ordered moves of a ply
+    private Alliance[] plyAlliances = new Alliance[16];     //plyAlliances[ply] is the alliance to move in the last position ordered at a ply
+
+    /***
+     * Default constructor creates a HeuristicMoveOrdering with all the stages enabled
+     */
+    public HeuristicMoveOrdering(){
+        this(EnumSet.allOf(Stage.class));
+    }
+
+    /***
+     * Parametrized constructor creates a HeuristicMoveOrdering with only the given stages enabled, the moves of the
+     * disabled stages are ordered with the moves of the HISTORY stage, or in generation order if it is disabled too
+     * @param enabledStages The stages to be used to order the moves
+     */
+    public HeuristicMoveOrdering(Set<Stage> enabledStages){
+        useHashMove = enabledStages.contains(Stage.HASH_MOVE);
+        useCaptures = enabledStages.contains(Stage.CAPTURE);
+        useKillers = enabledStages.contains(Stage.KILLER);
+        useHistory = enabledStages.contains(Stage.HISTORY);
+    }
+
+    @Override
+    public void orderMoves(CheckersBoard checkersBoard, MoveBuffer moves, long hashMove, int ply) {
+        ensurePlyCapacity(ply);
+        int size = moves.size();
+        plyAlliances[ply] = checkersBoard.getAllianceToMove();
+        if(scores[ply] == null || scores[ply].length < size){
+            scores[ply] = new int[Math.max(size, 32)];
+            stages[ply] = new Stage[Math.max(size, 32)];
+        }
+        int[] moveScores = scores[ply];
+        Stage[] moveStages = stages[ply];
+        int[] allianceHistory = history[historyIndex(checkersBoard.getAllianceToMove())];
+        int kings = checkersBoard.getKings();
+        long firstKiller = killers[2*ply], secondKiller = killers[2*ply + 1];
+
+        //Score each move within its stage
+        for (int i = 0; i < size; i++) {
+            long move = moves.get(i);
+            if(useHashMove && move == hashMove){
+                moveScores[i] = hashMoveScore;
+                moveStages[i] = Stage.HASH_MOVE;
+            }else if(PackedMove.isJumpMove(move)){
+                int captured = PackedMove.getCapturedPieces(move);
+                moveScores[i] = useCaptures ? captureScore + pawnValue*Integer.bitCount(captured & ~kings) + kingValue*Integer.bitCount(captured & kings) : 0;
+                moveStages[i] = Stage.CAPTURE;
+            }else if(useKillers && (move == firstKiller || move == secondKiller)){
+                moveScores[i] = move == firstKiller ? killerScore + 1 : killerScore;
+                moveStages[i] = Stage.KILLER;
+            }else{
+                moveScores[i] = useHistory ? allianceHistory[historyKey(move)] : 0;
+                moveStages[i] = Stage.HISTORY;
+            }
+        }
+
+        //Insertion sort in decreasing order of score, there are only a few moves in a position and equal scores keep their order
+        for (int i = 1; i < size; i++) {
+            long move = moves.get(i);
+            int score = moveScores[i];
+            Stage stage = moveStages[i];
+            int j = i - 1;
+            while (j >= 0 && moveScores[j] < score){
+                moves.set(j + 1, moves.get(j));
+                moveScores[j + 1] = moveScores[j];
+                moveStages[j + 1] = moveStages[j];
+                j--;
+            }
+            moves.set(j + 1, move);
+            moveScores[j + 1] = score;
+            moveStages[j + 1] = stage;
+        }
+    }
+
+    @Override
+    public Stage getStage(int ply, int index) {
+        return stages[ply][index];
+    }
+
+    @Override
+    public void recordCutoff(int ply, long move, int depth) {
+        //Only simple moves are remembered, jump moves are already searched before them
+        if(PackedMove.isJumpMove(move))
+            return;
+        if(killers[2*ply] != move){
+            killers[2*ply + 1] = killers[2*ply];
+            killers[2*ply] = move;
+        }
+        int[] allianceHistory = history[historyIndex(plyAlliances[ply])];
+        int key = historyKey(move);
+        allianceHistory[key] += depth*depth;
+        //Halve all the history scores once one of them gets too large, so that they stay below the killer moves
+        if(allianceHistory[key] > maximumHistoryScore){
+            for (int[] table : history) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] /= 2;
+                }
+            }
+        }
+    }
+
+    private static int historyIndex(Alliance alliance){
+        return alliance == Alliance.WHITE ? 0 : 1;
+    }
+
+    private static int historyKey(long move){
+        return PackedMove.getInitialSquare(move)*32 + PackedMove.getFinalSquare(move);
+    }
+
+    private void ensurePlyCapacity(int ply){
+        if(ply < scores.length)
+            return;
+        int length = Math.max(ply + 1, 2*scores.length);
+        scores = Arrays.copyOf(scores, length);
+        stages = Arrays.copyOf(stages, length);
+        plyAlliances = Arrays.copyOf(plyAlliances, length);
+        killers = Arrays.copyOf(killers, 2*length);
+    }
+}
@@ -1,134 +1,647 @@
 package Players;
 
 import Checkers.*;
+import Players.Evaluator.Evaluator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/***
+ * MCTSPlayer represents a Player which finds the best move on the given board position by Monte Carlo tree search
+ * Each iteration of the search descends the game tree from the root choosing the child with the best UCT value at each node,
+ * expands the leaf it reaches, plays a random game from one of the new children and adds its result to all the nodes on the way.
+ * The random games are played by a RolloutEngine on the board position of the worker itself, without creating Game or Player objects.
+ * The best move is the move of the root child which was visited the most.
+ * An Evaluator, such as a trained NeuralNetEvaluator, can be set to guide the search. The random game of an iteration is then cut
+ * after rolloutPlies plies, or not played at all if it is 0, and the position reached is scored by the Evaluator instead.
+ * If isPriorUsed is set the Evaluator also scores the children of each node as it is expanded, and a softmax of these scores is used
+ * as the prior of each move in the PUCT formula, which replaces UCT in the selection of the child.
+ * The tree is a MCTSTree, a pool of nodes of a fixed maximum size made of primitive arrays, which does not keep the board positions of
+ * its nodes: they are reached by making the moves on the path from the root. The pool is allocated in chunks as the tree of the
+ * first search grows, and recycled by the next ones.
+ * The tree is kept once the search is over. When the next search is asked for a position reached from the root of the kept tree,
+ * usually the position after the move played and the reply of the opponent, the node of that position becomes the root of the
+ * new search so that the visits gathered below it are not lost. The rest of the kept tree is dropped.
+ * With more than one thread the workers descend the same tree at the same time. A worker passing through a node adds a virtual loss
+ * to it, so that the other workers are steered towards other parts of the tree until its result is added.
+ * Member Variables:
+ *              maximumThinkingTime - The number of iterations of each search, used if thinkingTime is 0
+ *              thinkingTime - The time in milliseconds each search may take, 0 if the searches run a fixed number of iterations
+ *              maximumNodeCount - The number of nodes of the pool, the leaves are not expanded any more once it is full
+ *              threadCount - The number of workers descending the tree at the same time
+ *              isRolloutBiased - Whether the random games prefer the moves capturing the most pieces and the moves making a king
+ *              leafEvaluator - The Evaluator scoring the positions reached by the iterations, null to play the random games to their end
+ *              rolloutPlies - The number of random plies played before the position is scored by leafEvaluator
+ *              isPriorUsed - Whether the children are selected by PUCT with priors from leafEvaluator
+ *              searchPool - The threads of the workers if threadCount is more than 1
+ *              lastSearchStatistics - The counters of the last search which was finished
+ *              isTreeReused - Whether the tree is kept between searches
+ *              keptTree - The tree of the last search, whose pool is recycled by the next search, null if there is none
+ *              keptRootBoard - The board position of the root of keptTree, null if the tree is not to be reused
+ *              seed - The seed of the random generators of the searches, null to seed them at random. With a seed, one worker and
+ *                     a fixed number of iterations, the search of a board position after the same earlier searches always finds the same move
+ */
 public class MCTSPlayer extends Player{
-    private static RandomPlayer randomPlayer1 = new RandomPlayer();
-    private static RandomPlayer randomPlayer2 = new RandomPlayer();
+    public static final int defaultNodeCount = 1 << 20;    //About 26 MB of nodes
     private static double epsilon = 1e-6;
-    MCTSNode root;
+    private static final int maximumReusedPlies = 2;    //The kept tree is only searched for positions reached in at most this many plies
+    private static final double explorationConstant = Math.sqrt(2);
+    private static final double puctConstant = 1.5;         //Weight of the prior term in the PUCT formula
+    private static final double priorTemperature = 0.1;     //Temperature of the softmax turning the scores of the children into priors
     int maximumThinkingTime;
+    private final long thinkingTime;
+    private volatile int maximumNodeCount;
+    private final int threadCount;
+    private volatile boolean isRolloutBiased;
+    private volatile Evaluator leafEvaluator;
+    private volatile int rolloutPlies;
+    private volatile boolean isPriorUsed;
+    private volatile ForkJoinPool searchPool;
+    private volatile MCTSStatistics lastSearchStatistics;
+    private volatile boolean isTreeReused = true;
+    private MCTSTree keptTree;
+    private CheckersBoard keptRootBoard;
+    private volatile Long seed;
 
+    /***
+     * Parametrized constructor creates a MCTSPlayer which searches on the calling thread
+     * @param maximumThinkingTime The number of iterations of each search
+     */
     public MCTSPlayer(int maximumThinkingTime) {
+        this(maximumThinkingTime, 1);
+    }
+
+    /***
+     * Parametrized constructor creates a MCTSPlayer whose searches are shared by the given number of workers
+     * @param maximumThinkingTime The number of iterations of each search, shared by all the workers
+     * @param threadCount The number of workers descending the tree at the same time, 1 to search on the calling thread
+     */
+    public MCTSPlayer(int maximumThinkingTime, int threadCount) {
         this.maximumThinkingTime = maximumThinkingTime;
+        this.thinkingTime = 0;
+        this.maximumNodeCount = defaultNodeCount;
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /***
+     * Parametrized constructor creates a MCTSPlayer whose searches run until their thinking time is over
+     * @param thinkingTime The time in milliseconds each search may take
+     * @param threadCount The number of workers descending the tree at the same time, 1 to search on the calling thread
+     * @param maximumNodeCount The number of nodes of the pool, 0 for defaultNodeCount. Once it is full the search goes on
+     *                         without expanding the leaves, so the memory used by a search stays bounded whatever its thinking time
+     */
+    public MCTSPlayer(long thinkingTime, int threadCount, int maximumNodeCount) {
+        this.maximumThinkingTime = Integer.MAX_VALUE;
+        this.thinkingTime = thinkingTime;
+        this.maximumNodeCount = maximumNodeCount > 0 ? maximumNodeCount : defaultNodeCount;
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    /***
+     * Getter method for the threadCount member field
+     * @return The number of workers descending the tree at the same time
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /***
+     * Getter method for the thinkingTime member field
+     * @return The time in milliseconds each search may take, 0 if the searches run a fixed number of iterations
+     */
+    public long getThinkingTime() {
+        return thinkingTime;
+    }
+
+    /***
+     * Getter method for the maximumNodeCount member field
+     * @return The number of nodes of the pool
+     */
+    public int getMaximumNodeCount() {
+        return maximumNodeCount;
+    }
+
+    /***
+     * Setter method for the maximumNodeCount member field, a pool of the new size is allocated by the next search
+     * @param maximumNodeCount The number of nodes of the pool, 0 for defaultNodeCount
+     */
+    public void setMaximumNodeCount(int maximumNodeCount) {
+        this.maximumNodeCount = maximumNodeCount > 0 ? maximumNodeCount : defaultNodeCount;
+    }
+
+    /***
+     * Getter method for the isRolloutBiased member field
+     * @return Whether the random games prefer the moves capturing the most pieces and the moves making a king
+     */
+    public boolean isRolloutBiased() {
+        return isRolloutBiased;
+    }
+
+    /***
+     * Setter method for the isRolloutBiased member field
+     * @param isRolloutBiased Whether the random games are to prefer the moves capturing the most pieces and the moves making a king
+     */
+    public void setRolloutBiased(boolean isRolloutBiased) {
+        this.isRolloutBiased = isRolloutBiased;
+    }
+
+    /***
+     * Getter method for the leafEvaluator member field
+     * @return The Evaluator scoring the positions reached by the iterations, null if the random games are played to their end
+     */
+    public Evaluator getLeafEvaluator() {
+        return leafEvaluator;
+    }
+
+    /***
+     * Getter method for the rolloutPlies member field
+     * @return The number of random plies played before the position is scored by leafEvaluator
+     */
+    public int getRolloutPlies() {
+        return rolloutPlies;
+    }
+
+    /***
+     * Sets the Evaluator scoring the positions reached by the iterations in place of the end of the random games
+     * Its score must be between -1 and 1 from the perspective of White, as the scores of NeuralNetEvaluator and StaticEvaluator are,
+     * and it must be safe to use from several threads if the player has more than one worker
+     * @param leafEvaluator The Evaluator, null to play the random games to their end
+     * @param rolloutPlies The number of random plies to be played before the position is scored, 0 to score the leaf itself
+     */
+    public void setLeafEvaluator(Evaluator leafEvaluator, int rolloutPlies) {
+        this.rolloutPlies = Math.max(0, rolloutPlies);
+        this.leafEvaluator = leafEvaluator;
+    }
+
+    /***
+     * Getter method for the isPriorUsed member field
+     * @return Whether the children are selected by PUCT with priors from leafEvaluator
+     */
+    public boolean isPriorUsed() {
+        return isPriorUsed;
+    }
+
+    /***
+     * Setter method for the isPriorUsed member field, the priors are only used while a leafEvaluator is set
+     * @param isPriorUsed Whether the children are to be selected by PUCT with priors from leafEvaluator
+     */
+    public void setPriorUsed(boolean isPriorUsed) {
+        this.isPriorUsed = isPriorUsed;
+    }
+
+    /***
+     * Getter method for the isTreeReused member field
+     * @return Whether the tree is kept between searches
+     */
+    public boolean isTreeReused() {
+        return isTreeReused;
+    }
+
+    /***
+     * Setter method for the isTreeReused member field
+     * @param isTreeReused Whether the tree is to be kept between searches, the kept tree is dropped if it is false but its pool is still recycled
+     */
+    public synchronized void setTreeReused(boolean isTreeReused) {
+        this.isTreeReused = isTreeReused;
+        if(!isTreeReused)
+            keptRootBoard = null;
+    }
+
+    /***
+     * Getter method for the seed member field
+     * @return The seed of the random generators of the searches, or null if they are seeded at random
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /***
+     * Setter method for the seed member field
+     * The generator of each search is derived from the seed and the board position searched, and the generator of each worker is split from it
+     * @param seed The seed of the random generators of the searches, null to seed them at random
+     */
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    /***
+     * Getter method for the lastSearchStatistics member field
+     * @return The counters of the last search which was finished, or null if no search was finished
+     */
+    public MCTSStatistics getLastSearchStatistics() {
+        return lastSearchStatistics;
     }
 
     @Override
     public Move bestMove(CheckersBoard checkersBoard) {
-        root = new MCTSNode(checkersBoard);
-        int count = 0;
-        while(count<maximumThinkingTime){
-            selectAction();
-            count++;
-        }
-        if(root.isLeaf())
+        //Continue with the node of the given position in the kept tree if there is one, otherwise start a new tree
+        Evaluator evaluator = leafEvaluator;
+        MCTSTree tree = takeTree(checkersBoard, evaluator != null && isPriorUsed);
+        //The thinking time starts once the tree is ready, so that setting up the pool of a new tree is not taken from it
+        long startTime = System.nanoTime();
+        int reusedNodeCount = tree.getSize() > 1 ? tree.getSize() : 0;
+        Search search = new Search(tree, maximumThinkingTime, thinkingTime > 0 ? startTime + thinkingTime*1000000 : 0,
+                evaluator, rolloutPlies);
+        //Expand the root here so that the search is not needed when there is at most one legal move
+        int firstChild = tree.getFirstChild(MCTSTree.ROOT);
+        if(firstChild == MCTSTree.UNEXPANDED)
+            firstChild = expand(search, MCTSTree.ROOT, checkersBoard, new MoveBuffer(), new float[0]);
+        if(firstChild == MCTSTree.UNEXPANDED || tree.getChildCount(MCTSTree.ROOT) == 0){
+            //No legal move, or a pool too small for the children of the root
+            keepTree(tree, null);
             return null;
-        Move bestMove = root.select().lastMove;
-        return bestMove;
-    }
-
-    private void selectAction(){
-        List<MCTSNode> visited = new ArrayList<>();
-        MCTSNode current = root;
-        visited.add(current);
-        while(!current.isLeaf()){
-            current = current.select();
+        }
+        if(tree.getChildCount(MCTSTree.ROOT) == 1){
+            lastSearchStatistics = new MCTSStatistics(0, System.nanoTime() - startTime, 0, 0, 0, tree.getSize(), reusedNodeCount);
+            long move = tree.getMove(firstChild);
+            keepTree(tree, checkersBoard);
+            return checkersBoard.toMove(move);
         }
 
-        int value;
-        if(current.expand()){
-            MCTSNode newNode = current.select();
-            visited.add(newNode);
-            value = newNode.rollOut();
+        //The generators of the workers are split from the generator of the search in the order of the workers
+        Long searchSeed = seed;
+        SplittableRandom random = searchSeed == null ? new SplittableRandom()
+                : new SplittableRandom(searchSeed ^ checkersBoard.getZobristKey() ^ (long) checkersBoard.getPlyCount() << 48);
+        Worker[] workers = new Worker[threadCount];
+        if(threadCount == 1){
+            //The moves are made on the given board position itself, they are all unmade once the search is over
+            workers[0] = new Worker(search, checkersBoard, random.split(), isRolloutBiased);
+            workers[0].search();
         }else{
-            value = (current.checkersBoard.getAllianceToMove() == Alliance.WHITE)? -1: 1;
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                Worker worker = workers[i] = new Worker(search, checkersBoard.clone(), random.split(), isRolloutBiased);
+                tasks.add(() -> {
+                    worker.search();
+                    return null;
+                });
+            }
+            try {
+                for(Future<Void> future: getSearchPool().invokeAll(tasks))
+                    future.get();
+            } catch (InterruptedException e) {
+                //Play the best move found so far, the interrupt is kept for the caller
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
         }
-        for(MCTSNode node: visited){
-            node.updateStatus(value);
+
+        //Sum up the counters of the workers
+        long iterations = 0, rollouts = 0, rolloutPlies = 0, evaluations = 0;
+        for(Worker worker: workers){
+            iterations += worker.iterations;
+            rollouts += worker.rollouts;
+            rolloutPlies += worker.rolloutPlies;
+            evaluations += worker.evaluations;
         }
+        lastSearchStatistics = new MCTSStatistics(iterations, System.nanoTime() - startTime, rollouts, rolloutPlies,
+                evaluations, tree.getSize(), reusedNodeCount);
+        long move = tree.getMove(tree.mostVisitedChild(MCTSTree.ROOT));
+        keepTree(tree, checkersBoard);
+        return checkersBoard.toMove(move);
     }
 
+    /***
+     * Takes the tree kept from the last search, rooted at the node of the given board position
+     * The position is looked for among the positions reached from the root of the kept tree in as many plies as the
+     * difference of their plyCounts, upto maximumReusedPlies. If it is not found the tree is emptied, and a new pool is
+     * allocated if there is no kept tree, as when another search of this player is running, or if the kept tree does not
+     * have priors as asked or the size of the pool has been changed.
+     * @param checkersBoard The board position of the new search
+     * @param hasPriors Whether the tree is to keep a prior for each node
+     * @return The tree of the new search
+     */
+    private synchronized MCTSTree takeTree(CheckersBoard checkersBoard, boolean hasPriors){
+        MCTSTree tree = keptTree;
+        CheckersBoard rootBoard = keptRootBoard;
+        keptTree = null;
+        keptRootBoard = null;
+        int nodeCount = maximumNodeCount;
+        if(tree == null || tree.hasPriors() != hasPriors || tree.getCapacity() != nodeCount)
+            return new MCTSTree(nodeCount, hasPriors);
+        int node = -1;
+        int plies = rootBoard == null ? -1 : checkersBoard.getPlyCount() - rootBoard.getPlyCount();
+        if(plies >= 0 && plies <= maximumReusedPlies)
+            node = findNode(tree, MCTSTree.ROOT, rootBoard, checkersBoard, plies);
+        if(node < 0)
+            tree.reset();
+        else
+            tree.reroot(node);
+        return tree;
+    }
 
-    class MCTSNode{
-        CheckersBoard checkersBoard;
-        Move lastMove;
-        int numberOfVisits, totalValue;
-        List<MCTSNode> children = new ArrayList<>();
+    /***
+     * Keeps the tree of a search for the next search, which reuses its nodes if isTreeReused is true and its pool otherwise
+     * @param tree The tree of the search
+     * @param checkersBoard The board position of the root, null if the nodes of the tree are not to be reused
+     */
+    private synchronized void keepTree(MCTSTree tree, CheckersBoard checkersBoard){
+        keptTree = tree;
+        keptRootBoard = isTreeReused && checkersBoard != null ? checkersBoard.clone() : null;
+    }
 
-        public MCTSNode(CheckersBoard checkersBoard) {
-            this.checkersBoard = checkersBoard;
+    /***
+     * Finds the node of the target position among the nodes reached from the given node in the given number of plies
+     * @param tree The tree to be searched
+     * @param node The node from which the search starts
+     * @param nodeBoard The board position of the node, moves are made on it and unmade afterwards
+     * @param targetBoard The board position to be found
+     * @param plies The number of plies between the node and the target position
+     * @return The node of the target position, or -1 if it was not found
+     */
+    private static int findNode(MCTSTree tree, int node, CheckersBoard nodeBoard, CheckersBoard targetBoard, int plies){
+        if(plies == 0)
+            return nodeBoard.equals(targetBoard) ? node : -1;
+        int first = tree.getFirstChild(node);
+        if(first == MCTSTree.UNEXPANDED)
+            return -1;
+        for (int child = first; child < first + tree.getChildCount(node); child++) {
+            nodeBoard.makeMove(tree.getMove(child));
+            int found = findNode(tree, child, nodeBoard, targetBoard, plies - 1);
+            nodeBoard.unmakeMove();
+            if(found >= 0)
+                return found;
         }
+        return -1;
+    }
 
-        public MCTSNode(CheckersBoard checkersBoard, Move lastMove) {
-            this.checkersBoard = checkersBoard;
-            this.lastMove = lastMove;
+    /***
+     * Expands a node of the tree, scoring its children to find their priors if the tree keeps priors
+     * @param search The search the tree belongs to
+     * @param node The node to be expanded
+     * @param checkersBoard The board position of the node, moves are made on it and unmade afterwards
+     * @param moveBuffer The buffer into which the legal moves are generated
+     * @param priorBuffer The buffer into which the priors are computed, a larger one is allocated if it is too small
+     * @return The index of the first child of the node, or MCTSTree.UNEXPANDED if the pool has no room left for its children
+     */
+    private static int expand(Search search, int node, CheckersBoard checkersBoard, MoveBuffer moveBuffer, float[] priorBuffer){
+        moveBuffer.clear();
+        checkersBoard.generateMoves(moveBuffer);
+        float[] priors = null;
+        if(search.tree.hasPriors()){
+            priors = priorBuffer.length >= moveBuffer.size() ? priorBuffer : new float[moveBuffer.size()];
+            computePriors(search.evaluator, checkersBoard, moveBuffer, priors);
         }
+        return search.tree.expand(node, moveBuffer, priors);
+    }
 
-        public void updateStatus(int value) {
-            this.numberOfVisits++;
-            this.totalValue += value;
+    /***
+     * Scores the position after each of the given moves and turns the scores into probabilities by a softmax
+     * @param evaluator The Evaluator scoring the positions
+     * @param checkersBoard The board position in which the moves are made, it is the same once the method returns
+     * @param moveBuffer The legal moves in the board position
+     * @param priors The array into which the probabilities are written, in the order of the moves
+     */
+    private static void computePriors(Evaluator evaluator, CheckersBoard checkersBoard, MoveBuffer moveBuffer, float[] priors){
+        //Score the moves from the perspective of the alliance making them
+        float sign = checkersBoard.getAllianceToMove() == Alliance.WHITE ? 1 : -1;
+        float maximum = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            checkersBoard.makeMove(moveBuffer.get(i));
+            priors[i] = (float) (sign*evaluator.evaluate(checkersBoard)/priorTemperature);
+            checkersBoard.unmakeMove();
+            maximum = Math.max(maximum, priors[i]);
+        }
+        float sum = 0;
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            priors[i] = (float) Math.exp(priors[i] - maximum);
+            sum += priors[i];
         }
+        for (int i = 0; i < moveBuffer.size(); i++) {
+            priors[i] /= sum;
+        }
+    }
 
-        public int rollOut() {
-            Game game = new Game(randomPlayer1, randomPlayer2, this.checkersBoard.clone());
-            GameResult matchResult = game.start();
-            if(matchResult == GameResult.WON)
-                return 1;
-            else if(matchResult == GameResult.DRAWN)
-                return 0;
-            else
-                return -1;
+    private ForkJoinPool getSearchPool() {
+        if(searchPool == null){
+            synchronized (this){
+                if(searchPool == null)
+                    searchPool = new ForkJoinPool(threadCount);
+            }
         }
+        return searchPool;
+    }
+
+    /***
+     * Search holds the state of a search shared by all its workers
+     * Member Variables:
+     *              tree - The game tree
+     *              iterationCount - The number of iterations started by all the workers
+     *              maximumIterations - The number of iterations of the search
+     *              deadline - The System.nanoTime() at which the thinking time of the search is over, 0 if the search is not timed
+     *              evaluator - The Evaluator scoring the positions reached by the iterations, null if the random games are played to their end
+     *              rolloutPlies - The number of random plies played before the position is scored by the evaluator
+     */
+    private static final class Search {
+        private final MCTSTree tree;
+        private final AtomicInteger iterationCount = new AtomicInteger();
+        private final int maximumIterations;
+        private final long deadline;
+        private final Evaluator evaluator;
+        private final int rolloutPlies;
 
-        public boolean expand() {
-            List<Move> legalMoves = this.checkersBoard.getAllMoves();
-            if(legalMoves.size() == 0)
+        private Search(MCTSTree tree, int maximumIterations, long deadline, Evaluator evaluator, int rolloutPlies) {
+            this.tree = tree;
+            this.maximumIterations = maximumIterations;
+            this.deadline = deadline;
+            this.evaluator = evaluator;
+            this.rolloutPlies = rolloutPlies;
+        }
+
+        /***
+         * @return True if another iteration may be started
+         */
+        private boolean startIteration(){
+            if(deadline != 0 && System.nanoTime() - deadline >= 0)
                 return false;
-            for(Move move: legalMoves){
-                CheckersBoard nextBoard = this.checkersBoard.clone();
-                nextBoard.makeMove(move);
-                children.add(new MCTSNode(nextBoard,  move));
+            return iterationCount.getAndIncrement() < maximumIterations;
+        }
+    }
+
+    /***
+     * Worker holds the state of one thread of a search
+     * Member Variables:
+     *              search - The state of the search shared by all the workers
+     *              tree - The shared game tree
+     *              searchBoard - The board position of the root, moves are made on it while descending the tree and unmade afterwards
+     *              rootPlyCount - The plyCount of the root position
+     *              visited - The nodes visited by the current iteration, from the root to the leaf
+     *              virtualLosses - The virtual loss added to each of the visited nodes
+     *              visitedCount - The number of nodes visited by the current iteration
+     *              moveBuffer - The buffer into which the moves of a leaf are generated when it is expanded
+     *              priorBuffer - The buffer into which the priors of the moves of a leaf are computed when it is expanded
+     *              random - The random generator of the worker, which breaks the ties of the selection and plays the random games
+     *              rolloutEngine - Plays the random games of the worker with its random generator
+     *              iterations, rollouts, rolloutPlies, evaluations - The counters of the iterations run by the worker, the random games it played,
+     *                                                               their plies and the positions it had scored by the evaluator
+     */
+    private static final class Worker {
+        private final Search search;
+        private final MCTSTree tree;
+        private final CheckersBoard searchBoard;
+        private final int rootPlyCount;
+        private int[] visited = new int[64];
+        private int[] virtualLosses = new int[64];
+        private int visitedCount;
+        private final MoveBuffer moveBuffer = new MoveBuffer();
+        private float[] priorBuffer = new float[0];
+        private final SplittableRandom random;
+        private final RolloutEngine rolloutEngine;
+        private long iterations, rollouts, rolloutPlies, evaluations;
+
+        private Worker(Search search, CheckersBoard searchBoard, SplittableRandom random, boolean isRolloutBiased) {
+            this.search = search;
+            this.random = random;
+            this.rolloutEngine = new RolloutEngine(random, isRolloutBiased);
+            this.tree = search.tree;
+            this.searchBoard = searchBoard;
+            this.rootPlyCount = searchBoard.getPlyCount();
+        }
+
+        /***
+         * Runs iterations until the number of iterations of the search have been started by all the workers or its thinking time is over
+         */
+        private void search(){
+            while(search.startIteration()){
+                selectAction();
+                iterations++;
             }
-            return true;
-        }
-
-        public MCTSNode select() {
-            MCTSNode selected = null;
-            if(root.checkersBoard.getAllianceToMove() == Alliance.WHITE){
-                double bestValue = Integer.MIN_VALUE;
-                for (MCTSNode child: this.children){
-                    double uctValue =
-                            (double) child.totalValue/(child.numberOfVisits + epsilon) +
-                                    Math.sqrt(2)* Math.sqrt(Math.log(this.numberOfVisits+1)/(child.numberOfVisits + epsilon)) +
-                                    Math.random()*epsilon;
-                    if(uctValue>bestValue){
-                        bestValue = uctValue;
-                        selected = child;
-                    }
-                }
+        }
+
+        private void selectAction(){
+            visitedCount = 0;
+            int current = MCTSTree.ROOT;
+            visit(current, 0);
+            int firstChild;
+            while((firstChild = tree.getFirstChild(current)) != MCTSTree.UNEXPANDED && tree.getChildCount(current) > 0){
+                current = descend(current, firstChild);
+            }
+            double value;
+            if(firstChild == MCTSTree.UNEXPANDED && tree.isFull()){
+                //The tree is full, so the leaf itself is scored
+                value = scoreLeaf();
             }else{
-                double bestValue = Integer.MAX_VALUE;
-                for (MCTSNode child: this.children){
-                    double uctValue =
-                            (double) child.totalValue/(child.numberOfVisits + epsilon) +
-                                    Math.sqrt(2)* Math.sqrt(Math.log(this.numberOfVisits+1)/(child.numberOfVisits + epsilon)) +
-                                    Math.random()*epsilon;
-                    if(uctValue<bestValue){
-                        bestValue = uctValue;
-                        selected = child;
-                    }
+                //Expand the leaf, unless another worker has just expanded it
+                if(firstChild == MCTSTree.UNEXPANDED){
+                    firstChild = expand(search, current, searchBoard, moveBuffer, priorBuffer);
+                    if(priorBuffer.length < moveBuffer.size())
+                        priorBuffer = new float[moveBuffer.size()];
+                }
+                if(firstChild == MCTSTree.UNEXPANDED){
+                    //The pool was filled by another worker, so the leaf could not be expanded
+                    value = scoreLeaf();
+                }else if(tree.getChildCount(current) > 0){
+                    descend(current, firstChild);
+                    value = scoreLeaf();
+                }else{
+                    //The alliance to move has no legal move, so it has lost
+                    value = (searchBoard.getAllianceToMove() == Alliance.WHITE)? -1: 1;
+                }
+            }
+            for (int i = 0; i < visitedCount; i++) {
+                tree.updateStatus(visited[i], value, virtualLosses[i]);
+            }
+            //Take back the moves made while descending so that the search board is at the root position again
+            while(searchBoard.getPlyCount() > rootPlyCount){
+                searchBoard.unmakeMove();
+            }
+        }
+
+        private void visit(int node, int virtualLoss){
+            if(visitedCount == visited.length){
+                visited = Arrays.copyOf(visited, 2*visitedCount);
+                virtualLosses = Arrays.copyOf(virtualLosses, 2*visitedCount);
+            }
+            tree.addVirtualLoss(node, virtualLoss);
+            visited[visitedCount] = node;
+            virtualLosses[visitedCount++] = virtualLoss;
+        }
+
+        /***
+         * Scores the board position of the leaf reached by the iteration, by a random game played to its end if the search has
+         * no evaluator, otherwise by the evaluator after rolloutPlies random plies
+         * @return The score of the leaf from the perspective of White, between -1 and 1
+         */
+        private double scoreLeaf(){
+            if(search.evaluator == null)
+                return rollOut(searchBoard);
+            int result = rolloutEngine.playPlies(searchBoard, search.rolloutPlies);
+            if(search.rolloutPlies > 0){
+                rollouts++;
+                rolloutPlies += rolloutEngine.getLastGameLength();
+            }
+            double value = result;
+            if(result == RolloutEngine.UNFINISHED){
+                value = Math.max(-1, Math.min(1, search.evaluator.evaluate(searchBoard)));
+                evaluations++;
+            }
+            rolloutEngine.takeBack(searchBoard);
+            return value;
+        }
+
+        /***
+         * Moves from the given node to its child with the best UCT value for the alliance to move
+         * @param parent The current node, it must have children
+         * @param firstChild The index of the first child of the parent
+         * @return The chosen child, whose move has been made on the search board
+         */
+        private int descend(int parent, int firstChild){
+            Alliance allianceToMove = searchBoard.getAllianceToMove();
+            int child = select(parent, firstChild, allianceToMove);
+            //A running iteration counts as a loss for the alliance which made the move of the child
+            visit(child, allianceToMove == Alliance.WHITE ? -1 : 1);
+            searchBoard.makeMove(tree.getMove(child));
+            return child;
+        }
+
+        /***
+         * @param parent A node which has children
+         * @param firstChild The index of the first child of the parent
+         * @param allianceToMove The alliance to move in the board position of the parent
+         * @return The child with the best UCT value from the perspective of the alliance to move,
+         *         or the best PUCT value if the tree keeps priors
+         */
+        private int select(int parent, int firstChild, Alliance allianceToMove){
+            int selected = firstChild;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            int parentVisits = tree.getNumberOfVisits(parent);
+            double logOfVisits = Math.log(parentVisits+1);
+            double rootOfVisits = Math.sqrt(parentVisits);
+            boolean hasPriors = tree.hasPriors();
+            for (int child = firstChild; child < firstChild + tree.getChildCount(parent); child++){
+                int childVisits = tree.getNumberOfVisits(child);
+                double averageValue = tree.getValueSum(child)/(MCTSTree.VALUE_SCALE*(childVisits + epsilon));
+                if(allianceToMove == Alliance.BLACK)
+                    averageValue = -averageValue;
+                double explorationValue = hasPriors ? puctConstant*tree.getPrior(child)*rootOfVisits/(childVisits + 1)
+                        : explorationConstant*Math.sqrt(logOfVisits/(childVisits + epsilon));
+                double uctValue = averageValue + explorationValue + random.nextDouble()*epsilon;
+                if(uctValue > bestValue){
+                    bestValue = uctValue;
+                    selected = child;
                 }
             }
             return selected;
         }
 
-        public boolean isLeaf() {
-            return children.isEmpty();
+        /***
+         * Plays a random game from the given board position
+         * @param checkersBoard The board position from which the game is played, it is the same once the game is over
+         * @return 1 if White wins the game, -1 if Black wins and 0 if it is drawn
+         */
+        private int rollOut(CheckersBoard checkersBoard) {
+            int value = rolloutEngine.play(checkersBoard);
+            rollouts++;
+            rolloutPlies += rolloutEngine.getLastGameLength();
+            return value;
         }
     }
 }
-
-
@@ -0,0 +1,78 @@
+package Players;
+
+/***
+ * MCTSStatistics holds the counters of one call to MCTSPlayer.bestMove()
+ * Member Variables:
+ *              iterations - The number of iterations run by all the workers of the search
+ *              elapsedTime - The time taken by the search in nanoseconds
+ *              rollouts - The number of random games played from the leaves of the tree
+ *              rolloutPlies - The total number of plies of these games
+ *              evaluations - The number of leaf positions scored by the Evaluator of the player
+ *              treeSize - The number of nodes in the tree at the end of the search
+ *              reusedNodeCount - The number of nodes of the tree kept from the previous search with which the search started
+ */
+public class MCTSStatistics {
+    private final long iterations;
+    private final long elapsedTime;
+    private final long rollouts;
+    private final long rolloutPlies;
+    private final long evaluations;
+    private final int treeSize;
+    private final int reusedNodeCount;
+
+    MCTSStatistics(long iterations, long elapsedTime, long rollouts, long rolloutPlies, long evaluations,
+                   int treeSize, int reusedNodeCount) {
+        this.iterations = iterations;
+        this.elapsedTime = elapsedTime;
+        this.rollouts = rollouts;
+        this.rolloutPlies = rolloutPlies;
+        this.evaluations = evaluations;
+        this.treeSize = treeSize;
+        this.reusedNodeCount = reusedNodeCount;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    /***
+     * @return The time taken by the search in milliseconds
+     */
+    public long getElapsedTime() {
+        return elapsedTime/1000000;
+    }
+
+    /***
+     * @return The number of iterations run per second of the search
+     */
+    public double getIterationsPerSecond() {
+        return elapsedTime == 0 ? 0.0 : iterations/(elapsedTime/1e9);
+    }
+
+    /***
+     * @return The average number of plies of the random games played from the leaves of the tree, 0 if none was played
+     */
+    public double getAverageRolloutLength() {
+        return rollouts == 0 ? 0.0 : (double) rolloutPlies/rollouts;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public int getTreeSize() {
+        return treeSize;
+    }
+
+    public int getReusedNodeCount() {
+        return reusedNodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "Iterations: " + iterations + " in " + getElapsedTime() + " ms (" + String.format("%.0f", getIterationsPerSecond())
+                + "/s) Average Rollout Length: " + String.format("%.1f", getAverageRolloutLength())
+                + (evaluations == 0 ? "" : " Evaluations: " + evaluations)
+                + " Tree Size: " + treeSize + " Reused Nodes: " + reusedNodeCount;
+    }
+}
@@ -0,0 +1,335 @@
+package Players;
+
+import Checkers.MoveBuffer;
+import Checkers.PackedMove;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/***
+ * MCTSTree class is the game tree of MCTSPlayer, kept in a pool of nodes made of parallel primitive arrays instead of one object per node.
+ * A node is an index into the arrays. The children of a node are kept next to each other, so a node only holds the index of its
+ * first child and the number of its children. The board position of a node is not kept, it is reached by making the moves of the
+ * nodes on the path from the root, so a node takes 26 bytes whatever the size of the board, and 30 bytes if the tree keeps priors.
+ * The pool is made of chunks of chunkSize nodes, which are allocated as the tree grows upto its capacity, so that a short search
+ * does not pay for allocating and zeroing a pool sized for a long one. The chunks are kept and recycled: reset() empties the tree
+ * for a new search and reroot() keeps only the subtree of one node, moving it to the start of the pool.
+ * Several workers may read and update the tree at the same time. The counters of a node are updated atomically, and the children of
+ * a node are published by setting its first child index with a compare and set, after they have been written.
+ * Member Variables:
+ *              capacity - The number of nodes the pool can hold
+ *              hasPriors - Whether the tree keeps a prior probability for each node
+ *              chunks - The chunks of the pool, node i being kept in chunk i/chunkSize, null for the chunks not allocated yet
+ *              size - The number of nodes of the pool in use, the next children are added from this index
+ */
+final class MCTSTree {
+    static final int ROOT = 0;
+    static final int UNEXPANDED = -1;
+    static final long VALUE_SCALE = 1L << 16;   //Results are kept in fixed point so that the value sums can be updated atomically
+
+    private static final int chunkBits = 14;
+    private static final int chunkSize = 1 << chunkBits;     //16384 nodes, about 420 KB
+    private static final int chunkMask = chunkSize - 1;
+
+    private static final VarHandle intElements = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle longElements = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle chunkElements = MethodHandles.arrayElementVarHandle(Chunk[].class);
+
+    private final int capacity;
+    private final boolean hasPriors;
+    private final Chunk[] chunks;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /***
+     * Parametrized constructor creates an empty tree holding only the root
+     * @param capacity The number of nodes the pool can hold, at least 1
+     * @param hasPriors Whether the tree keeps a prior probability for each node
+     */
+    MCTSTree(int capacity, boolean hasPriors) {
+        this.capacity = Math.max(1, capacity);
+        this.hasPriors = hasPriors;
+        chunks = new Chunk[(this.capacity + chunkSize - 1) >>> chunkBits];
+        chunks[0] = new Chunk(Math.min(chunkSize, this.capacity), hasPriors);
+        reset();
+    }
+
+    /***
+     * Allocates the chunks holding the given nodes which have not been allocated yet
+     * A chunk is stored before the nodes in it are written, and the nodes are published by the first child index of their parent,
+     * so a worker reaching a node always sees its chunk
+     * @param first The first node
+     * @param count The number of nodes
+     */
+    private void allocateChunks(int first, int count) {
+        for (int chunk = first >>> chunkBits; chunk <= (first + count - 1) >>> chunkBits; chunk++) {
+            if(chunkElements.getVolatile(chunks, chunk) == null){
+                synchronized (chunks){
+                    if(chunks[chunk] == null)
+                        chunkElements.setVolatile(chunks, chunk, new Chunk(Math.min(chunkSize, capacity - (chunk << chunkBits)), hasPriors));
+                }
+            }
+        }
+    }
+
+    private Chunk chunkOf(int node) {
+        return chunks[node >>> chunkBits];
+    }
+
+    /***
+     * Getter method for the capacity member field
+     * @return The number of nodes the pool can hold
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /***
+     * @return True if the tree keeps a prior probability for each node
+     */
+    boolean hasPriors() {
+        return hasPriors;
+    }
+
+    /***
+     * @return The number of nodes of the pool in use, including the children of nodes expanded by two workers at once which were not kept
+     */
+    int getSize() {
+        return Math.min(size.get(), capacity);
+    }
+
+    /***
+     * @return True if the pool has no room left, the leaves are not expanded any more once it is full
+     */
+    boolean isFull() {
+        return size.get() >= capacity;
+    }
+
+    /***
+     * Empties the tree, leaving only a root which has not been visited
+     */
+    void reset() {
+        clearNode(ROOT, PackedMove.NONE);
+        size.set(1);
+    }
+
+    private void clearNode(int node, long move) {
+        Chunk chunk = chunkOf(node);
+        int index = node & chunkMask;
+        chunk.numberOfVisits[index] = 0;
+        chunk.valueSums[index] = 0;
+        chunk.firstChild[index] = UNEXPANDED;
+        chunk.childCounts[index] = 0;
+        chunk.moves[index] = move;
+    }
+
+    long getMove(int node) {
+        return chunkOf(node).moves[node & chunkMask];
+    }
+
+    float getPrior(int node) {
+        return chunkOf(node).priors[node & chunkMask];
+    }
+
+    int getNumberOfVisits(int node) {
+        return (int) intElements.getVolatile(chunkOf(node).numberOfVisits, node & chunkMask);
+    }
+
+    long getValueSum(int node) {
+        return (long) longElements.getVolatile(chunkOf(node).valueSums, node & chunkMask);
+    }
+
+    /***
+     * @param node A node of the tree
+     * @return The index of the first child of the node, UNEXPANDED if the node has not been expanded
+     */
+    int getFirstChild(int node) {
+        return (int) intElements.getVolatile(chunkOf(node).firstChild, node & chunkMask);
+    }
+
+    /***
+     * @param node A node which has been expanded, as seen by getFirstChild()
+     * @return The number of children of the node, 0 if it has no legal move
+     */
+    int getChildCount(int node) {
+        return chunkOf(node).childCounts[node & chunkMask];
+    }
+
+    /***
+     * Counts a visit of an iteration which has not finished yet, as a loss for the alliance which made the move of the node
+     * @param node The visited node
+     * @param virtualLoss The value of a loss for that alliance, -1 if it is White and 1 if it is Black, 0 for the root
+     */
+    void addVirtualLoss(int node, int virtualLoss) {
+        Chunk chunk = chunkOf(node);
+        intElements.getAndAdd(chunk.numberOfVisits, node & chunkMask, 1);
+        if(virtualLoss != 0)
+            longElements.getAndAdd(chunk.valueSums, node & chunkMask, virtualLoss*VALUE_SCALE);
+    }
+
+    /***
+     * Replaces the virtual loss added by an iteration with its result
+     * @param node The visited node
+     * @param value The result of the iteration from the perspective of White, between -1 and 1
+     * @param virtualLoss The virtual loss added to the node by the iteration
+     */
+    void updateStatus(int node, double value, int virtualLoss) {
+        longElements.getAndAdd(chunkOf(node).valueSums, node & chunkMask, Math.round(value*VALUE_SCALE) - virtualLoss*VALUE_SCALE);
+    }
+
+    /***
+     * Creates the children of a node, one for each legal move in its board position
+     * If several workers expand the node at the same time only the children added by the first of them are kept
+     * @param node The node to be expanded
+     * @param moveBuffer The legal moves in the board position of the node
+     * @param movePriors The prior probabilities of the moves, in the same order, or null if the tree keeps no priors
+     * @return The index of the first child of the node, or UNEXPANDED if the pool has no room left for its children
+     */
+    int expand(int node, MoveBuffer moveBuffer, float[] movePriors) {
+        int count = moveBuffer.size();
+        int first = 0;
+        if(count > 0){
+            first = size.getAndAdd(count);
+            if(first + count > capacity){
+                //Keep the size from growing further past the capacity
+                size.set(capacity);
+                return getFirstChild(node);
+            }
+            allocateChunks(first, count);
+            for (int i = 0; i < count; i++) {
+                clearNode(first + i, moveBuffer.get(i));
+                if(hasPriors)
+                    chunkOf(first + i).priors[(first + i) & chunkMask] = movePriors[i];
+            }
+        }
+        //The children are written before they are published by setting the first child index
+        Chunk chunk = chunkOf(node);
+        chunk.childCounts[node & chunkMask] = (short) count;
+        intElements.compareAndSet(chunk.firstChild, node & chunkMask, UNEXPANDED, first);
+        return getFirstChild(node);
+    }
+
+    /***
+     * @param node A node which has children
+     * @return The child which was visited the most
+     */
+    int mostVisitedChild(int node) {
+        int first = getFirstChild(node);
+        int mostVisited = first;
+        for (int child = first + 1; child < first + getChildCount(node); child++) {
+            if(getNumberOfVisits(child) > getNumberOfVisits(mostVisited))
+                mostVisited = child;
+        }
+        return mostVisited;
+    }
+
+    /***
+     * Makes the given node the root of the tree, dropping all the nodes which are not in its subtree
+     * The children blocks of the subtree are moved towards the start of the pool in the order they were added, so that no block
+     * is overwritten before it is moved, and the first child indexes are then mapped to the new places of the blocks.
+     * It must not be called while a search is running on the tree.
+     * @param node The new root
+     */
+    void reroot(int node) {
+        if(node == ROOT)
+            return;
+        //Gather the children blocks of the subtree, as their first index in the high half and their length in the low half
+        long[] blocks = new long[16];
+        int blockCount = 0;
+        int[] stack = new int[16];
+        int stackSize = 0;
+        stack[stackSize++] = node;
+        while(stackSize > 0){
+            int current = stack[--stackSize];
+            int count = getChildCount(current);
+            int first = getFirstChild(current);
+            if(first == UNEXPANDED || count == 0)
+                continue;
+            if(blockCount == blocks.length)
+                blocks = Arrays.copyOf(blocks, 2*blockCount);
+            blocks[blockCount++] = ((long) first << 32) | count;
+            if(stackSize + count > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(2*stack.length, stackSize + count));
+            for (int i = 0; i < count; i++) {
+                stack[stackSize++] = first + i;
+            }
+        }
+        Arrays.sort(blocks, 0, blockCount);
+
+        //The root slot is never part of a block, so the new root can be copied there first
+        copyNodes(node, ROOT, 1);
+        chunks[0].moves[ROOT] = PackedMove.NONE;
+        int[] newFirsts = new int[blockCount];
+        int next = 1;
+        for (int i = 0; i < blockCount; i++) {
+            int oldFirst = (int) (blocks[i] >>> 32);
+            int count = (int) blocks[i];
+            newFirsts[i] = next;
+            copyNodes(oldFirst, next, count);
+            next += count;
+        }
+        //Map the first child indexes of the kept nodes to the new places of their blocks
+        for (int current = 0; current < next; current++) {
+            Chunk chunk = chunkOf(current);
+            int index = current & chunkMask;
+            if(chunk.firstChild[index] != UNEXPANDED && chunk.childCounts[index] > 0){
+                int block = Arrays.binarySearch(blocks, 0, blockCount, ((long) chunk.firstChild[index] << 32) | chunk.childCounts[index]);
+                chunk.firstChild[index] = newFirsts[block];
+            }
+        }
+        size.set(next);
+    }
+
+    /***
+     * Copies nodes towards the start of the pool, the part of the nodes in each pair of chunks at a time
+     * @param from The first node to be copied
+     * @param to The node to which it is copied, not after from, so the nodes are copied in increasing order
+     * @param count The number of nodes
+     */
+    private void copyNodes(int from, int to, int count) {
+        while(count > 0){
+            int fromIndex = from & chunkMask, toIndex = to & chunkMask;
+            int length = Math.min(count, chunkSize - Math.max(fromIndex, toIndex));
+            Chunk fromChunk = chunkOf(from), toChunk = chunkOf(to);
+            System.arraycopy(fromChunk.numberOfVisits, fromIndex, toChunk.numberOfVisits, toIndex, length);
+            System.arraycopy(fromChunk.valueSums, fromIndex, toChunk.valueSums, toIndex, length);
+            System.arraycopy(fromChunk.firstChild, fromIndex, toChunk.firstChild, toIndex, length);
+            System.arraycopy(fromChunk.childCounts, fromIndex, toChunk.childCounts, toIndex, length);
+            System.arraycopy(fromChunk.moves, fromIndex, toChunk.moves, toIndex, length);
+            if(hasPriors)
+                System.arraycopy(fromChunk.priors, fromIndex, toChunk.priors, toIndex, length);
+            from += length;
+            to += length;
+            count -= length;
+        }
+    }
+
+    /***
+     * Chunk holds the fields of chunkSize consecutive nodes of the pool in parallel primitive arrays
+     * Member Variables:
+     *              numberOfVisits - The number of iterations which passed through each node, including those still running
+     *              valueSums - The sum of the results of these iterations from the perspective of White, in units of 1/VALUE_SCALE
+     *              firstChild - The index of the first child of each node, UNEXPANDED until the node is expanded
+     *              childCounts - The number of children of each node, 0 if it has no legal move
+     *              moves - The packed move that leads to each node from its parent, PackedMove.NONE for the root
+     *              priors - The prior probability of the move of each node among the moves of its parent, null if the tree keeps no priors
+     */
+    private static final class Chunk {
+        private final int[] numberOfVisits;
+        private final long[] valueSums;
+        private final int[] firstChild;
+        private final short[] childCounts;
+        private final long[] moves;
+        private final float[] priors;
+
+        private Chunk(int nodeCount, boolean hasPriors) {
+            numberOfVisits = new int[nodeCount];
+            valueSums = new long[nodeCount];
+            firstChild = new int[nodeCount];
+            childCounts = new short[nodeCount];
+            moves = new long[nodeCount];
+            priors = hasPriors ? new float[nodeCount] : null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package Players;
+
+import Checkers.CheckersBoard;
+import Checkers.MoveBuffer;
+
+/***
+ * MoveOrdering is the interface of the move ordering stage of AlphaBetaPlayer
+ * Alpha-beta pruning cuts off a position as soon as one of its moves is found to be good enough, so the sooner the best move
+ * of a position is searched the smaller the game tree becomes.
+ * A MoveOrdering object belongs to a single search, so it may keep the state it learns during the search, such as killer moves.
+ * The ordering of a position puts each of its moves in one of the stages given by the Stage enum, so that the cutoffs produced by each stage can be counted.
+ */
+public interface MoveOrdering {
+    /***
+     * The stages of the move ordering, in the order in which their moves are searched
+     */
+    enum Stage {
+        HASH_MOVE,      //The best move of the position stored in the TranspositionTable
+        CAPTURE,        //Jump moves, those capturing more material first
+        KILLER,         //Simple moves which caused a cutoff in another position at the same ply
+        HISTORY         //The other simple moves, those which caused cutoffs more often in the search first
+    }
+
+    /***
+     * Reorders the moves of a position so that the moves most likely to cause a cutoff are searched first
+     * @param checkersBoard The board position whose moves are ordered
+     * @param moves The legal moves of the position, they are reordered in place
+     * @param hashMove The packed move stored in the TranspositionTable for the position, PackedMove.NONE if there is none
+     * @param ply The number of moves made from the root position of the search to this position
+     */
+    void orderMoves(CheckersBoard checkersBoard, MoveBuffer moves, long hashMove, int ply);
+
+    /***
+     * @param ply The ply of the position, as given to the last call to orderMoves() at that ply
+     * @param index The index of a move in the ordered move buffer
+     * @return The stage in which the move at the given index was ordered
+     */
+    Stage getStage(int ply, int index);
+
+    /***
+     * Called when a move of a position caused a cutoff, so that the move is tried sooner in the other positions of the search
+     * @param ply The ply of the position, as given to the last call to orderMoves() at that ply
+     * @param move The packed move which caused the cutoff
+     * @param depth The depth upto which the position was searched
+     */
+    void recordCutoff(int ply, long move, int depth);
+}
@@ -8,6 +8,7 @@ import Checkers.Move;
  * Player class is the abstract class that acts as the super class of all the Players in the game
  * It has a member variable which corresponds to the alliance of the player
  * It defines the getAlliance() and setAlliance() getter setter methods for the alliance variable
+ * A Game gets the Player playing it from startGame(), which lets a Player play several games at the same time
  * It provides an abstract bestMove() which has to be implemented by all the subclasses of this Player class
  */
 public abstract class Player {
@@ -29,6 +30,19 @@ public abstract class Player {
         this.alliance = alliance;
     }
 
+    /***
+     * Returns the Player which plays one game with the given alliance, used by a Game so that a Player may play several games at the same time
+     * By default the alliance of this Player is set and this Player itself is returned, which suits the players whose state belongs
+     * to one game at a time. A Player which can play several games at the same time returns a new Player for the game instead,
+     * which shares the parts of this Player that do not change and keeps its own alliance.
+     * @param alliance The alliance the Player takes in the game
+     * @return The Player to play the game
+     */
+    public Player startGame(Alliance alliance){
+        setAlliance(alliance);
+        return this;
+    }
+
     /***
      * Returns the best move in the current board position according to this Player
      * @param checkersBoard The current board position where the best move is to be found
@@ -12,7 +12,22 @@ import java.util.Random;
  */
 public class RandomPlayer extends Player {
 
-    private final Random randomGenerator = new Random();    //A random generator object
+    private final Random randomGenerator;    //A random generator object
+
+    /***
+     * Default constructor creates a RandomPlayer whose random generator is seeded at random
+     */
+    public RandomPlayer() {
+        this.randomGenerator = new Random();
+    }
+
+    /***
+     * Parametrized constructor creates a RandomPlayer whose random generator is seeded with the given seed
+     * @param seed The seed of the random generator, the same seed plays the same moves in the same board positions
+     */
+    public RandomPlayer(long seed) {
+        this.randomGenerator = new Random(seed);
+    }
 
     @Override
     public Move bestMove(CheckersBoard checkersBoard) {
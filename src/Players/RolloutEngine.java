@@ -0,0 +1,131 @@
+package Players;
+
+import Checkers.Alliance;
+import Checkers.CheckersBoard;
+import Checkers.MoveBuffer;
+import Checkers.PackedMove;
+
+import java.util.SplittableRandom;
+
+/***
+ * RolloutEngine plays the random games from the leaves of the tree of MCTSPlayer.
+ * The moves are made on the given board position itself and unmade once the game is over, and they are generated into a
+ * move buffer kept by the engine, so a game allocates nothing once the buffers have grown large enough.
+ * An engine is used by one thread only, it has its own SplittableRandom so that the threads do not contend for a shared generator.
+ * Member Variables:
+ *              random - The random generator of the engine
+ *              isBiased - If set, the moves are chosen at random among the jump moves capturing the most pieces and,
+ *                         when there is no jump, among the moves upgrading a pawn to a king if there is one
+ *              moveBuffer - The buffer into which the legal moves of each position are generated
+ *              lastGameLength - The number of plies of the last game played
+ */
+public class RolloutEngine {
+    public static final int maximumPlyCount = 200;     //A game is drawn once this plyCount is reached, as in the Game class
+    public static final int UNFINISHED = 2;     //Returned by playPlies() when the game has not ended within its plies
+
+    private final SplittableRandom random;
+    private final boolean isBiased;
+    private final MoveBuffer moveBuffer = new MoveBuffer();
+    private int lastGameLength;
+
+    /***
+     * Parametrized constructor creates a RolloutEngine which plays uniformly random moves
+     * @param random The random generator of the engine
+     */
+    public RolloutEngine(SplittableRandom random) {
+        this(random, false);
+    }
+
+    /***
+     * Parametrized constructor creates a RolloutEngine
+     * @param random The random generator of the engine
+     * @param isBiased Whether the engine prefers the moves capturing the most pieces and the moves making a king
+     */
+    public RolloutEngine(SplittableRandom random, boolean isBiased) {
+        this.random = random;
+        this.isBiased = isBiased;
+    }
+
+    /***
+     * Plays a random game from the given board position
+     * @param checkersBoard The board position from which the game is played, it is the same as before once the method returns
+     * @return 1 if White wins the game, -1 if Black wins and 0 if it is drawn
+     */
+    public int play(CheckersBoard checkersBoard) {
+        int value = playPlies(checkersBoard, maximumPlyCount);
+        takeBack(checkersBoard);
+        return value;
+    }
+
+    /***
+     * Plays at most the given number of random plies from the given board position, leaving their moves made on it
+     * so that the position reached can be evaluated. takeBack() must be called afterwards to unmake them.
+     * @param checkersBoard The board position from which the game is played
+     * @param plies The number of plies to be played, the game is played to its end if it is at least maximumPlyCount
+     * @return 1 if White wins the game, -1 if Black wins, 0 if it is drawn and UNFINISHED if the plies ran out before its end
+     */
+    public int playPlies(CheckersBoard checkersBoard, int plies) {
+        int startPlyCount = checkersBoard.getPlyCount();
+        int value = UNFINISHED;
+        while (true){
+            if(checkersBoard.getPlyCount() >= maximumPlyCount){
+                value = 0;
+                break;
+            }
+            moveBuffer.clear();
+            checkersBoard.generateMoves(moveBuffer);
+            //The alliance to move loses if it has no legal move
+            if(moveBuffer.size() == 0){
+                value = (checkersBoard.getAllianceToMove() == Alliance.WHITE)? -1 : 1;
+                break;
+            }
+            if(checkersBoard.getPlyCount() - startPlyCount >= plies)
+                break;
+            checkersBoard.makeMove(chooseMove());
+        }
+        lastGameLength = checkersBoard.getPlyCount() - startPlyCount;
+        return value;
+    }
+
+    /***
+     * Unmakes the moves made by the last call to playPlies()
+     * @param checkersBoard The board position on which the moves were made
+     */
+    public void takeBack(CheckersBoard checkersBoard) {
+        for (int i = 0; i < lastGameLength; i++) {
+            checkersBoard.unmakeMove();
+        }
+    }
+
+    /***
+     * Getter method for the lastGameLength member field
+     * @return The number of plies of the last game played
+     */
+    public int getLastGameLength() {
+        return lastGameLength;
+    }
+
+    /***
+     * @return A random move among the moves in the move buffer, or among the preferred ones if the engine is biased
+     */
+    private long chooseMove(){
+        int size = moveBuffer.size();
+        if(!isBiased || size == 1)
+            return moveBuffer.get(random.nextInt(size));
+
+        //Keep the best moves at the front of the buffer and choose among them
+        int bestCount = 0;
+        int bestRank = -1;
+        for (int i = 0; i < size; i++) {
+            long move = moveBuffer.get(i);
+            int rank = PackedMove.getCaptureCount(move)*2 + (PackedMove.isPromotion(move) ? 1 : 0);
+            if(rank > bestRank){
+                bestRank = rank;
+                bestCount = 0;
+            }
+            if(rank == bestRank)
+                moveBuffer.set(bestCount++, move);
+        }
+        return moveBuffer.get(random.nextInt(bestCount));
+    }
+}
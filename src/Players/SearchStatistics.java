@@ -0,0 +1,95 @@
+package Players;
+
+/***
+ * SearchStatistics holds the counters of one call to AlphaBetaPlayer.bestMove()
+ * Member Variables:
+ *              nodes - The number of positions visited by the search upto its depth
+ *              quiescenceNodes - The number of positions visited by the quiescence search beyond the depth of the search
+ *              cutoffs - cutoffs[stage.ordinal()] is the number of cutoffs caused by moves ordered in the given MoveOrdering stage
+ *              completedDepth - The depth of the last finished iteration of the search
+ * The counters are only written by the thread running the search, so they are read once the search is over.
+ */
+public class SearchStatistics {
+    private long nodes;
+    private long quiescenceNodes;
+    private final long[] cutoffs = new long[MoveOrdering.Stage.values().length];
+    private int completedDepth;
+
+    void addNode(){
+        nodes++;
+    }
+
+    void addQuiescenceNode(){
+        quiescenceNodes++;
+    }
+
+    void addCutoff(MoveOrdering.Stage stage){
+        cutoffs[stage.ordinal()]++;
+    }
+
+    /***
+     * Adds the counters of the given statistics to these, used to sum up the counters of the threads of a parallel search
+     * @param other The statistics to be added
+     */
+    void add(SearchStatistics other){
+        nodes += other.nodes;
+        quiescenceNodes += other.quiescenceNodes;
+        for (int i = 0; i < cutoffs.length; i++) {
+            cutoffs[i] += other.cutoffs[i];
+        }
+    }
+
+    void setCompletedDepth(int completedDepth){
+        this.completedDepth = completedDepth;
+    }
+
+    /***
+     * Getter method for the nodes member field
+     * @return The number of positions visited by the search upto its depth
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /***
+     * Getter method for the quiescenceNodes member field
+     * @return The number of positions visited by the quiescence search beyond the depth of the search
+     */
+    public long getQuiescenceNodes() {
+        return quiescenceNodes;
+    }
+
+    /***
+     * @param stage A stage of the MoveOrdering
+     * @return The number of cutoffs caused by the moves ordered in the given stage
+     */
+    public long getCutoffs(MoveOrdering.Stage stage) {
+        return cutoffs[stage.ordinal()];
+    }
+
+    /***
+     * @return The number of cutoffs caused by the moves of all the stages
+     */
+    public long getTotalCutoffs() {
+        long total = 0;
+        for(long count: cutoffs)
+            total += count;
+        return total;
+    }
+
+    /***
+     * Getter method for the completedDepth member field
+     * @return The depth of the last finished iteration of the search
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("Depth: " + completedDepth + " Nodes: " + nodes + " Quiescence Nodes: " + quiescenceNodes + " Cutoffs:");
+        for(MoveOrdering.Stage stage: MoveOrdering.Stage.values())
+            stringBuilder.append(" ").append(stage).append("=").append(getCutoffs(stage));
+        return stringBuilder.toString();
+    }
+}
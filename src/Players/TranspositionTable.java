@@ -0,0 +1,215 @@
+package Players;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/***
+ * TranspositionTable class is a fixed-size hash table of the results of searched board positions, indexed by their Zobrist keys.
+ * In checkers the same position is reached by many different move orders, so AlphaBetaPlayer looks a position up in the
+ * table before searching it and stores the result after searching it.
+ * Each entry holds the key of the position, the depth it was searched to, the bound type and score of the result and the best move found.
+ * The table is lock-free so that it can be shared by all the games played by a player at the same time: an entry is written
+ * as three longs, the first of which is the key XORed with the other two, so an entry that was torn by two threads writing it
+ * at once does not match any key and is read as a miss.
+ * The entries are kept in buckets of two. The first entry of a bucket keeps the deepest result of the current search and
+ * the second one is always replaced, so that deep results survive while the most recent results are still kept.
+ * Scores are from the perspective of White, as returned by the Evaluator, so the table does not depend on the alliance of the player.
+ * A table must only be shared by players using the same Evaluator, as the scores stored in it depend on the Evaluator.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 1;          //The score is the exact value of the position
+    public static final int LOWER_BOUND = 2;    //The search failed high, the value of the position is at least the score
+    public static final int UPPER_BOUND = 3;    //The search failed low, the value of the position is at most the score
+
+    private static final int entrySize = 3;     //Longs in each entry: key^move^data, move, data
+    private static final int bucketSize = 2;    //Entries in each bucket
+
+    //Bits of the data long of an entry: the float bits of the score, the depth, the bound type and the age of the search that stored it
+    private static final int depthShift = 32;
+    private static final int boundShift = 40;
+    private static final int ageShift = 42;
+
+    private final long[] entries;
+    private final long bucketMask;
+    private final AtomicInteger age = new AtomicInteger();
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    /***
+     * Parametrized constructor creates a table using at most the given amount of memory
+     * The number of buckets is rounded down to a power of two so that the bucket of a key is found with a mask
+     * @param megabytes Memory budget of the table in megabytes, at least 1
+     */
+    public TranspositionTable(int megabytes){
+        long bytesPerBucket = 8L * entrySize * bucketSize;
+        long bucketCount = Long.highestOneBit(Math.max(1, megabytes) * (1L << 20) / bytesPerBucket);
+        //Keep the array within the maximum array length
+        bucketCount = Math.min(bucketCount, Integer.highestOneBit(Integer.MAX_VALUE / (entrySize * bucketSize)));
+        entries = new long[(int) (bucketCount * entrySize * bucketSize)];
+        bucketMask = bucketCount - 1;
+    }
+
+    /***
+     * @return The number of entries the table can hold
+     */
+    public int getCapacity(){
+        return entries.length / entrySize;
+    }
+
+    /***
+     * Marks the start of a new search, entries stored by older searches are replaced before those of the current search
+     */
+    public void newSearch(){
+        age.incrementAndGet();
+    }
+
+    /***
+     * Removes all the entries of the table and resets its counters
+     */
+    public void clear(){
+        Arrays.fill(entries, 0L);
+        resetStatistics();
+    }
+
+    /***
+     * Looks up the entry of a position
+     * @param key The Zobrist key of the position
+     * @param entry Array of length 2 into which the data and the best move of the entry are copied if it is found,
+     *              the data is decoded with scoreOf(), depthOf() and boundOf()
+     * @return True if an entry of the position was found
+     */
+    public boolean probe(long key, long[] entry){
+        probes.increment();
+        int index = bucketIndex(key);
+        for (int i = 0; i < bucketSize; i++, index += entrySize) {
+            long move = entries[index + 1];
+            long data = entries[index + 2];
+            if((entries[index] ^ move ^ data) == key && boundOf(data) != 0){
+                entry[0] = data;
+                entry[1] = move;
+                hits.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /***
+     * Stores the result of a searched position
+     * An existing entry of the position is overwritten, otherwise the deepest entry of the bucket is overwritten only by a
+     * result searched at least as deep or if it was stored by an older search, and the other entry of the bucket is overwritten otherwise
+     * @param key The Zobrist key of the position
+     * @param depth The depth the position was searched to
+     * @param bound One of EXACT, LOWER_BOUND and UPPER_BOUND
+     * @param score The score of the position from the perspective of White
+     * @param bestMove The packed best move found in the position, PackedMove.NONE if there is none
+     */
+    public void store(long key, int depth, int bound, float score, long bestMove){
+        stores.increment();
+        int currentAge = age.get() & 0xFF;
+        int index = bucketIndex(key);
+        int replaced = index;
+        long deepData = entries[index + 2];
+        if((entries[index] ^ entries[index + 1] ^ deepData) != key){
+            //The first entry belongs to another position, keep it unless the new result is at least as deep or the entry is stale
+            int otherIndex = index + entrySize;
+            boolean isOtherEntry = (entries[otherIndex] ^ entries[otherIndex + 1] ^ entries[otherIndex + 2]) == key;
+            if(isOtherEntry || (depth < depthOf(deepData) && ageOf(deepData) == currentAge))
+                replaced = otherIndex;
+        }
+        //Keep the best move of the position if the new result did not find one
+        if(bestMove == 0L){
+            long oldMove = entries[replaced + 1];
+            long oldData = entries[replaced + 2];
+            if((entries[replaced] ^ oldMove ^ oldData) == key)
+                bestMove = oldMove;
+        }
+        long data = (Float.floatToIntBits(score) & 0xFFFFFFFFL)
+                | ((long) Math.min(depth, 0xFF) << depthShift)
+                | ((long) bound << boundShift)
+                | ((long) currentAge << ageShift);
+        entries[replaced] = key ^ bestMove ^ data;
+        entries[replaced + 1] = bestMove;
+        entries[replaced + 2] = data;
+    }
+
+    /***
+     * @param data The data of an entry found by probe()
+     * @return The score of the position from the perspective of White
+     */
+    public static float scoreOf(long data){
+        return Float.intBitsToFloat((int) data);
+    }
+
+    /***
+     * @param data The data of an entry found by probe()
+     * @return The depth to which the position was searched
+     */
+    public static int depthOf(long data){
+        return (int) (data >>> depthShift) & 0xFF;
+    }
+
+    /***
+     * @param data The data of an entry found by probe()
+     * @return One of EXACT, LOWER_BOUND and UPPER_BOUND
+     */
+    public static int boundOf(long data){
+        return (int) (data >>> boundShift) & 3;
+    }
+
+    private static int ageOf(long data){
+        return (int) (data >>> ageShift) & 0xFF;
+    }
+
+    private int bucketIndex(long key){
+        //The low bits of the key choose the bucket
+        return (int) (key & bucketMask) * entrySize * bucketSize;
+    }
+
+    /***
+     * @return The number of lookups made in the table
+     */
+    public long getProbes(){
+        return probes.sum();
+    }
+
+    /***
+     * @return The number of lookups which found an entry of the position
+     */
+    public long getHits(){
+        return hits.sum();
+    }
+
+    /***
+     * @return The number of results stored in the table
+     */
+    public long getStores(){
+        return stores.sum();
+    }
+
+    /***
+     * @return The fraction of lookups which found an entry of the position, 0 if no lookup was made
+     */
+    public double getHitRate(){
+        long probeCount = getProbes();
+        return probeCount == 0 ? 0.0 : (double) getHits() / probeCount;
+    }
+
+    /***
+     * Sets the probes, hits and stores counters back to 0
+     */
+    public void resetStatistics(){
+        probes.reset();
+        hits.reset();
+        stores.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "Transposition Table: " + getCapacity() + " entries, " + getProbes() + " probes, " + getHits() + " hits ("
+                + String.format("%.1f", 100*getHitRate()) + "%), " + getStores() + " stores";
+    }
+}
@@ -0,0 +1,88 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.Game;
+import Checkers.GameResult;
+import Checkers.MoveBuffer;
+import GeneticAlgorithm.TournamentScheduler;
+import Players.AlphaBetaPlayer;
+import Players.Evaluator.NeuralNetEvaluator;
+import Players.Evaluator.StaticEvaluator;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/***
+ * Plays games from random openings between two shared deterministic AlphaBetaPlayers, each opening with both alliances, first one game
+ * at a time and then all the games at the same time on a TournamentScheduler with more threads than games of one alliance,
+ * and checks that every game has the same result both times
+ */
+public class TestConcurrentGames {
+    private static final int openingCount = 16;
+    private static final int randomOpeningMoves = 4;
+    private static final int depth = 4;
+    private static final int threadCount = 8;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        NeuralNetEvaluator neuralNetEvaluator;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream("./src/Data/bestNNEvaluator.dat"))) {
+            objectInputStream.readInt();
+            neuralNetEvaluator = (NeuralNetEvaluator) objectInputStream.readObject();
+        }
+        //Without a TranspositionTable the moves found do not depend on the other games searched at the same time
+        AlphaBetaPlayer neuralNetPlayer = new AlphaBetaPlayer(depth, neuralNetEvaluator, 0);
+        neuralNetPlayer.setDeterministic(true);
+        AlphaBetaPlayer staticPlayer = new AlphaBetaPlayer(depth, new StaticEvaluator(), 0);
+        staticPlayer.setDeterministic(true);
+
+        Random random = new Random(1);
+        List<CheckersBoard> openings = new ArrayList<>();
+        for (int i = 0; i < openingCount; i++)
+            openings.add(randomOpening(random));
+
+        GameResult[] sequentialResults = new GameResult[2*openingCount];
+        for (int i = 0; i < 2*openingCount; i++)
+            sequentialResults[i] = playGame(neuralNetPlayer, staticPlayer, openings.get(i/2), i%2 == 0);
+
+        GameResult[] concurrentResults = new GameResult[2*openingCount];
+        List<Runnable> games = new ArrayList<>();
+        for (int i = 0; i < 2*openingCount; i++) {
+            int index = i;
+            games.add(() -> concurrentResults[index] = playGame(neuralNetPlayer, staticPlayer, openings.get(index/2), index%2 == 0));
+        }
+        System.out.println(new TournamentScheduler(threadCount).playGames(games));
+
+        int sameResults = 0, neuralNetPlayerWins = 0;
+        for (int i = 0; i < 2*openingCount; i++) {
+            if(sequentialResults[i] == concurrentResults[i])
+                sameResults++;
+            boolean isNeuralNetPlayerWhite = i%2 == 0;
+            if(sequentialResults[i] != GameResult.DRAWN && (sequentialResults[i] == GameResult.WON) == isNeuralNetPlayerWhite)
+                neuralNetPlayerWins++;
+        }
+        System.out.println("Same results one game at a time and all games at once: " + sameResults + "/" + 2*openingCount
+                + (sameResults == 2*openingCount ? " OK" : " FAILED"));
+        System.out.println("NeuralNetEvaluator wins: " + neuralNetPlayerWins);
+    }
+
+    private static GameResult playGame(AlphaBetaPlayer neuralNetPlayer, AlphaBetaPlayer staticPlayer, CheckersBoard opening, boolean isNeuralNetPlayerWhite){
+        Game game = isNeuralNetPlayerWhite ? new Game(neuralNetPlayer, staticPlayer, opening.clone()) : new Game(staticPlayer, neuralNetPlayer, opening.clone());
+        return game.start();
+    }
+
+    private static CheckersBoard randomOpening(Random random){
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        MoveBuffer legalMoves = new MoveBuffer();
+        for (int i = 0; i < randomOpeningMoves; i++) {
+            legalMoves.clear();
+            checkersBoard.generateMoves(legalMoves);
+            checkersBoard.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+        }
+        return checkersBoard;
+    }
+}
@@ -0,0 +1,84 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.Game;
+import Checkers.GameResult;
+import Checkers.MoveBuffer;
+import Players.Evaluator.NeuralNetEvaluator;
+import Players.Evaluator.StaticEvaluator;
+import Players.MCTSPlayer;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Random;
+
+/***
+ * Plays games between MCTSPlayers guided by an Evaluator, which scores the leaves in place of the random games and gives the
+ * priors of the moves, and a MCTSPlayer playing random games, with the same thinking time. The guided players use the saved best
+ * NeuralNetEvaluator and the StaticEvaluator.
+ * The games start from positions after a few random opening moves, each position being played with both alliances,
+ * and the results are printed from the perspective of the guided player.
+ */
+public class TestEvaluatorMCTS {
+    private static final long thinkingTime = 50;
+    private static final int openingCount = 4;
+    private static final int randomOpeningMoves = 4;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        NeuralNetEvaluator neuralNetEvaluator;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream("./src/Data/bestNNEvaluator.dat"))) {
+            objectInputStream.readInt();
+            neuralNetEvaluator = (NeuralNetEvaluator) objectInputStream.readObject();
+        }
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        MCTSPlayer randomPlayer = new MCTSPlayer(thinkingTime, threadCount, 0);
+        MCTSPlayer neuralNetPlayer = new MCTSPlayer(thinkingTime, threadCount, 0);
+        neuralNetPlayer.setLeafEvaluator(neuralNetEvaluator, 0);
+        neuralNetPlayer.setPriorUsed(true);
+        MCTSPlayer staticPlayer = new MCTSPlayer(thinkingTime, threadCount, 0);
+        staticPlayer.setLeafEvaluator(new StaticEvaluator(), 0);
+        staticPlayer.setPriorUsed(true);
+
+        playMatch("NeuralNetEvaluator", neuralNetPlayer, randomPlayer);
+        playMatch("StaticEvaluator", staticPlayer, randomPlayer);
+    }
+
+    private static void playMatch(String name, MCTSPlayer guidedPlayer, MCTSPlayer randomPlayer){
+        CheckersBoard initialBoard = new CheckersBoard();
+        initialBoard.setInitialBoardPosition();
+        guidedPlayer.bestMove(initialBoard.clone());
+        System.out.println(name + " guided search: " + guidedPlayer.getLastSearchStatistics());
+
+        Random random = new Random(1);
+        int won = 0, lost = 0, drawn = 0;
+        for (int i = 0; i < openingCount; i++) {
+            CheckersBoard opening = randomOpening(random);
+            for (int j = 0; j < 2; j++) {
+                boolean isGuidedPlayerWhite = j == 0;
+                Game game = isGuidedPlayerWhite ? new Game(guidedPlayer, randomPlayer, opening.clone())
+                        : new Game(randomPlayer, guidedPlayer, opening.clone());
+                GameResult gameResult = game.start();
+                if(gameResult == GameResult.DRAWN)
+                    drawn++;
+                else if((gameResult == GameResult.WON) == isGuidedPlayerWhite)
+                    won++;
+                else
+                    lost++;
+            }
+        }
+        System.out.println(name + " guided MCTS against random game MCTS at " + thinkingTime + " ms a move: Won " + won + " Lost " + lost + " Drawn " + drawn);
+    }
+
+    private static CheckersBoard randomOpening(Random random){
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        MoveBuffer legalMoves = new MoveBuffer();
+        for (int i = 0; i < randomOpeningMoves; i++) {
+            legalMoves.clear();
+            checkersBoard.generateMoves(legalMoves);
+            checkersBoard.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+        }
+        return checkersBoard;
+    }
+}
@@ -0,0 +1,89 @@
+package Tests;
+
+import Checkers.Alliance;
+import Checkers.CheckersBoard;
+import Checkers.Game;
+import Checkers.GameResult;
+import Checkers.Move;
+import Players.AlphaBetaPlayer;
+import Players.Evaluator.StaticEvaluator;
+import Players.Player;
+import Players.RandomPlayer;
+
+/***
+ * Plays games with players whose startGame() returns a Player other than themselves, and checks that each side of the game is
+ * played by the Player returned for its alliance, both with a recording player and with the GameSessions of AlphaBetaPlayers,
+ * whose game must be the same as the one played by calling bestMove() of the two AlphaBetaPlayers in turn
+ */
+public class TestGameSessions {
+    private static final int depth = 4;
+
+    public static void main(String[] args) {
+        RecordingPlayer white = new RecordingPlayer();
+        RecordingPlayer black = new RecordingPlayer();
+        new Game(white, black).start();
+        System.out.println("Moves of White: " + white.moves + " of Black: " + black.moves + " made by the wrong alliance: "
+                + (white.wrongMoves + black.wrongMoves) + (white.wrongMoves + black.wrongMoves == 0 && white.moves > 0 && black.moves > 0 ? " OK" : " FAILED"));
+
+        AlphaBetaPlayer whitePlayer = new AlphaBetaPlayer(depth, new StaticEvaluator(), 0);
+        AlphaBetaPlayer blackPlayer = new AlphaBetaPlayer(depth + 2, new StaticEvaluator(), 0);
+        CheckersBoard gameBoard = new CheckersBoard();
+        gameBoard.setInitialBoardPosition();
+        GameResult gameResult = new Game(whitePlayer, blackPlayer, gameBoard).start();
+
+        //The same game played by calling the players directly
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        GameResult expectedResult = GameResult.DRAWN;
+        while (checkersBoard.getPlyCount() < 200){
+            AlphaBetaPlayer playerToMove = checkersBoard.getAllianceToMove() == Alliance.WHITE ? whitePlayer : blackPlayer;
+            Move nextMove = playerToMove.bestMove(checkersBoard.clone());
+            if(nextMove == null){
+                expectedResult = checkersBoard.getAllianceToMove() == Alliance.WHITE ? GameResult.LOST : GameResult.WON;
+                break;
+            }
+            checkersBoard.makeMove(nextMove);
+        }
+        boolean isSameGame = gameResult == expectedResult && gameBoard.getZobristKey() == checkersBoard.getZobristKey()
+                && gameBoard.getPlyCount() == checkersBoard.getPlyCount();
+        System.out.println("Game of the GameSessions: " + gameResult + " in " + gameBoard.getPlyCount() + " plies, players called directly: "
+                + expectedResult + " in " + checkersBoard.getPlyCount() + " plies" + (isSameGame ? " OK" : " FAILED"));
+    }
+
+    /***
+     * RecordingPlayer returns a new Player for each game, which counts its moves and the moves asked in a board position
+     * where the other alliance is to move, the moves asked of the RecordingPlayer itself being counted as wrong
+     */
+    private static final class RecordingPlayer extends Player {
+        private final RandomPlayer randomPlayer;
+        private int moves, wrongMoves;
+
+        private RecordingPlayer() {
+            this.randomPlayer = new RandomPlayer();
+        }
+
+        @Override
+        public Player startGame(Alliance alliance) {
+            RecordingPlayer outer = this;
+            Player gamePlayer = new Player() {
+                @Override
+                public Move bestMove(CheckersBoard checkersBoard) {
+                    if(checkersBoard.getAllianceToMove() == getAlliance())
+                        outer.moves++;
+                    else
+                        outer.wrongMoves++;
+                    return randomPlayer.bestMove(checkersBoard);
+                }
+            };
+            gamePlayer.setAlliance(alliance);
+            return gamePlayer;
+        }
+
+        @Override
+        public Move bestMove(CheckersBoard checkersBoard) {
+            //The game must only use the Players returned by startGame()
+            wrongMoves++;
+            return randomPlayer.bestMove(checkersBoard);
+        }
+    }
+}
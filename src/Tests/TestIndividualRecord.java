@@ -0,0 +1,46 @@
+package Tests;
+
+import GeneticAlgorithm.Individual;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/***
+ * Records matches of one Individual from several threads at the same time, then checks that no match was lost
+ * and that resetting the round scores moves the round into the total record
+ */
+public class TestIndividualRecord {
+    private static final int threadCount = 8;
+    private static final int matchesPerThread = 200000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Individual individual = new Individual(1, 4, 4);
+        List<Thread> threads = new ArrayList<>();
+        long startTime = System.nanoTime();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < matchesPerThread; j++) {
+                    if(j%3 == 0)
+                        individual.updateRecordsForMatchWon();
+                    else if(j%3 == 1)
+                        individual.updateRecordsForMatchDrawn();
+                    else
+                        individual.updateRecordsForMatchLost();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for(Thread thread: threads)
+            thread.join();
+        long elapsedTime = System.nanoTime() - startTime;
+
+        Individual.MatchRecord matchRecord = individual.getMatchRecord();
+        int expectedMatches = threadCount*matchesPerThread;
+        System.out.println("Recorded " + matchRecord.getRoundMatchesPlayed() + " of " + expectedMatches + " matches in " + elapsedTime/1000000
+                + " ms " + (matchRecord.getRoundMatchesPlayed() == expectedMatches ? "OK" : "FAILED"));
+        individual.resetRoundScores();
+        individual.updateRecordsForMatchWon();
+        System.out.print("After a new round with one win:\n" + individual.getMatchRecord());
+    }
+}
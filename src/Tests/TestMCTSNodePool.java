@@ -0,0 +1,44 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Players.MCTSPlayer;
+
+/***
+ * Runs a long search of the initial position with a large node pool, printing its counters and the heap taken by the pool,
+ * then a second search of the same position to show that the pool is recycled instead of allocated again, and a search with
+ * a fixed number of iterations in a small pool, which must not grow past its size
+ */
+public class TestMCTSNodePool {
+    private static final int maximumNodeCount = 4000000;
+    private static final long thinkingTime = 5000;
+    private static final int smallNodeCount = 20000;
+    private static final int smallPoolIterations = 50000;
+
+    public static void main(String[] args) {
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        MCTSPlayer mctsPlayer = new MCTSPlayer(thinkingTime, Runtime.getRuntime().availableProcessors(), maximumNodeCount);
+        long heapBefore = usedHeap();
+        mctsPlayer.bestMove(checkersBoard);
+        long heapAfter = usedHeap();
+        System.out.println("First search: " + mctsPlayer.getLastSearchStatistics());
+        System.out.println("Heap used by the pool of " + maximumNodeCount + " nodes: " + (heapAfter - heapBefore)/(1 << 20)
+                + " MB (" + (heapAfter - heapBefore)/maximumNodeCount + " bytes per node)");
+        mctsPlayer.bestMove(checkersBoard);
+        System.out.println("Second search: " + mctsPlayer.getLastSearchStatistics());
+        System.out.println("Heap growth during the second search: " + (usedHeap() - heapAfter)/(1 << 20) + " MB");
+
+        MCTSPlayer smallPoolPlayer = new MCTSPlayer(smallPoolIterations);
+        smallPoolPlayer.setMaximumNodeCount(smallNodeCount);
+        smallPoolPlayer.bestMove(checkersBoard);
+        int treeSize = smallPoolPlayer.getLastSearchStatistics().getTreeSize();
+        System.out.println(smallPoolIterations + " iterations in a pool of " + smallNodeCount + " nodes: " + smallPoolPlayer.getLastSearchStatistics()
+                + (treeSize <= smallNodeCount ? " OK" : " FAILED"));
+    }
+
+    private static long usedHeap(){
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,27 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Players.MCTSPlayer;
+
+/***
+ * Checks that a timed MCTSPlayer keeps to its thinking time and to its maximum node count,
+ * printing the counters of a search of the initial position for a few thinking times
+ */
+public class TestMCTSThinkingTime {
+    private static final long[] thinkingTimes = {10, 100, 1000};
+    private static final int maximumNodeCount = 20000;
+
+    public static void main(String[] args) {
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        for(long thinkingTime: thinkingTimes){
+            MCTSPlayer mctsPlayer = new MCTSPlayer(thinkingTime, 1, 0);
+            mctsPlayer.bestMove(checkersBoard);
+            System.out.println("Thinking time " + thinkingTime + " ms: " + mctsPlayer.getLastSearchStatistics());
+        }
+        MCTSPlayer mctsPlayer = new MCTSPlayer(1000, Runtime.getRuntime().availableProcessors(), maximumNodeCount);
+        mctsPlayer.bestMove(checkersBoard);
+        System.out.println("Thinking time 1000 ms with at most " + maximumNodeCount + " nodes and "
+                + mctsPlayer.getThreadCount() + " workers: " + mctsPlayer.getLastSearchStatistics());
+    }
+}
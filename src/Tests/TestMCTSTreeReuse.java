@@ -0,0 +1,28 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.Move;
+import Players.MCTSPlayer;
+
+/***
+ * Plays a few moves of a game between two MCTSPlayers which keep their trees, printing after each move
+ * how many nodes of the tree kept from the previous move the search started with
+ */
+public class TestMCTSTreeReuse {
+    private static final int moveCount = 10;
+
+    public static void main(String[] args) {
+        MCTSPlayer whitePlayer = new MCTSPlayer(200L, 1, 0);
+        MCTSPlayer blackPlayer = new MCTSPlayer(200L, 1, 0);
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        for (int i = 0; i < moveCount; i++) {
+            MCTSPlayer playerToMove = i % 2 == 0 ? whitePlayer : blackPlayer;
+            Move move = playerToMove.bestMove(checkersBoard.clone());
+            if(move == null)
+                break;
+            System.out.println("Ply " + i + ": " + playerToMove.getLastSearchStatistics());
+            checkersBoard.makeMove(move);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Players.AlphaBetaPlayer;
+import Players.Evaluator.StaticEvaluator;
+import Players.HeuristicMoveOrdering;
+import Players.MoveOrdering;
+
+import java.util.EnumSet;
+
+/***
+ * Searches the positions of a game with more and more stages of the HeuristicMoveOrdering enabled,
+ * and prints the nodes searched and the cutoffs caused by each stage
+ */
+public class TestMoveOrdering {
+    private static final int depth = 8;
+    private static final int positionCount = 20;
+
+    public static void main(String[] args) {
+        test("No ordering", EnumSet.noneOf(MoveOrdering.Stage.class));
+        test("Hash move", EnumSet.of(MoveOrdering.Stage.HASH_MOVE));
+        test("Hash move and captures", EnumSet.of(MoveOrdering.Stage.HASH_MOVE, MoveOrdering.Stage.CAPTURE));
+        test("Hash move, captures and killers", EnumSet.of(MoveOrdering.Stage.HASH_MOVE, MoveOrdering.Stage.CAPTURE, MoveOrdering.Stage.KILLER));
+        test("All stages", EnumSet.allOf(MoveOrdering.Stage.class));
+    }
+
+    private static void test(String name, EnumSet<MoveOrdering.Stage> stages){
+        AlphaBetaPlayer alphaBetaPlayer = new AlphaBetaPlayer(depth, new StaticEvaluator());
+        alphaBetaPlayer.setMoveOrdering(() -> new HeuristicMoveOrdering(stages));
+        AlphaBetaPlayer gamePlayer = new AlphaBetaPlayer(2, new StaticEvaluator(), 0);
+
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        long nodes = 0;
+        long[] cutoffs = new long[MoveOrdering.Stage.values().length];
+        long startTime = System.nanoTime();
+        for (int i = 0; i < positionCount; i++) {
+            if(alphaBetaPlayer.bestMove(checkersBoard) == null)
+                break;
+            nodes += alphaBetaPlayer.getLastSearchStatistics().getNodes();
+            for(MoveOrdering.Stage stage: MoveOrdering.Stage.values())
+                cutoffs[stage.ordinal()] += alphaBetaPlayer.getLastSearchStatistics().getCutoffs(stage);
+            checkersBoard.makeMove(gamePlayer.bestMove(checkersBoard));
+        }
+        System.out.print(name + ": " + nodes + " nodes in " + (System.nanoTime() - startTime)/1000000 + " ms, cutoffs:");
+        for(MoveOrdering.Stage stage: MoveOrdering.Stage.values())
+            System.out.print(" " + stage + "=" + cutoffs[stage.ordinal()]);
+        System.out.println();
+    }
+}
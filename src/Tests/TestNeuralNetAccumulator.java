@@ -0,0 +1,98 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.MoveBuffer;
+import Players.Evaluator.NeuralNetEvaluator;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Random;
+
+/***
+ * Walks random paths of moves made and unmade on a board with an Accumulator of the saved best NeuralNetEvaluator set on it,
+ * printing the largest difference between its evaluation and the evaluation from scratch of a copy of the board, then times
+ * one evaluation from the sums of the Accumulator against one evaluation from scratch, over the positions of more such paths
+ */
+public class TestNeuralNetAccumulator {
+    private static final int walkCount = 2000;
+    private static final int maximumWalkLength = 60;
+    private static final int repetitions = 20;     //Evaluations of each position in a row when timing
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        NeuralNetEvaluator neuralNetEvaluator;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream("./src/Data/bestNNEvaluator.dat"))) {
+            objectInputStream.readInt();
+            neuralNetEvaluator = (NeuralNetEvaluator) objectInputStream.readObject();
+        }
+
+        Random random = new Random(1);
+        MoveBuffer legalMoves = new MoveBuffer();
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setBoardListener(neuralNetEvaluator.createBoardListener());
+        double largestDifference = 0;
+        long positionCount = 0;
+        for (int walk = 0; walk < walkCount; walk++) {
+            checkersBoard.setInitialBoardPosition();
+            int madeMoves = 0;
+            int walkLength = random.nextInt(maximumWalkLength);
+            for (int i = 0; i < walkLength; i++) {
+                //Take a move back now and then, so that the sums of the previous positions are used again
+                if(madeMoves > 0 && random.nextInt(4) == 0){
+                    checkersBoard.unmakeMove();
+                    madeMoves--;
+                }else{
+                    legalMoves.clear();
+                    checkersBoard.generateMoves(legalMoves);
+                    if(legalMoves.size() == 0)
+                        break;
+                    checkersBoard.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+                    madeMoves++;
+                }
+                double difference = Math.abs(neuralNetEvaluator.evaluate(checkersBoard) - neuralNetEvaluator.evaluate(checkersBoard.clone()));
+                largestDifference = Math.max(largestDifference, difference);
+                positionCount++;
+            }
+        }
+        System.out.println("Largest difference from the evaluation from scratch over " + positionCount + " positions: " + largestDifference);
+
+        for (int i = 0; i < 3; i++) {
+            timeEvaluations(neuralNetEvaluator, checkersBoard, new Random(2 + i));
+        }
+    }
+
+    /***
+     * Walks random paths of moves made on a board with an Accumulator, timing the evaluation of each position from the Accumulator
+     * and the evaluation of a copy of the board without one, apart from the making of the moves and the copying of the boards
+     */
+    private static void timeEvaluations(NeuralNetEvaluator neuralNetEvaluator, CheckersBoard checkersBoard, Random random){
+        MoveBuffer legalMoves = new MoveBuffer();
+        long accumulatorTime = 0, scratchTime = 0, evaluationCount = 0;
+        float checksum = 0;
+        for (int walk = 0; walk < walkCount; walk++) {
+            checkersBoard.setInitialBoardPosition();
+            int walkLength = random.nextInt(maximumWalkLength);
+            for (int i = 0; i < walkLength; i++) {
+                legalMoves.clear();
+                checkersBoard.generateMoves(legalMoves);
+                if(legalMoves.size() == 0)
+                    break;
+                checkersBoard.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+                CheckersBoard scratchBoard = checkersBoard.clone();
+                long startTime = System.nanoTime();
+                for (int j = 0; j < repetitions; j++) {
+                    checksum += neuralNetEvaluator.evaluate(checkersBoard);
+                }
+                accumulatorTime += System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                for (int j = 0; j < repetitions; j++) {
+                    checksum += neuralNetEvaluator.evaluate(scratchBoard);
+                }
+                scratchTime += System.nanoTime() - startTime;
+                evaluationCount += repetitions;
+            }
+        }
+        System.out.println("Evaluation: " + accumulatorTime/evaluationCount + " ns from the Accumulator, " + scratchTime/evaluationCount
+                + " ns from scratch per position (checksum " + checksum + ")");
+    }
+}
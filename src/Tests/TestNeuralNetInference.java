@@ -0,0 +1,109 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.MoveBuffer;
+import Players.Evaluator.NeuralNetEvaluator;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/***
+ * Checks the flat weight evaluation of the saved best NeuralNetEvaluator against a plain evaluation computed from the weight matrices
+ * returned by its getters with Math.tanh(), printing the largest difference, and checks that evaluate() allocates nothing once warmed up
+ */
+public class TestNeuralNetInference {
+    private static final int positionCount = 4096;
+    private static final int repetitions = 100;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        NeuralNetEvaluator neuralNetEvaluator;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream("./src/Data/bestNNEvaluator.dat"))) {
+            objectInputStream.readInt();
+            neuralNetEvaluator = (NeuralNetEvaluator) objectInputStream.readObject();
+        }
+        CheckersBoard[] checkersBoards = randomPositions(new Random(1));
+
+        double largestDifference = 0;
+        for(CheckersBoard checkersBoard: checkersBoards){
+            double difference = Math.abs(neuralNetEvaluator.evaluate(checkersBoard) - referenceEvaluate(neuralNetEvaluator, checkersBoard));
+            largestDifference = Math.max(largestDifference, difference);
+        }
+        System.out.println("Largest difference from the matrix evaluation: " + largestDifference);
+
+        float sum = 0;
+        for (int i = 0; i < positionCount; i++) {
+            sum += neuralNetEvaluator.evaluate(checkersBoards[i]);     //Warm up
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long startTime = System.nanoTime();
+        for (int repetition = 0; repetition < repetitions; repetition++) {
+            for (int i = 0; i < positionCount; i++) {
+                sum += neuralNetEvaluator.evaluate(checkersBoards[i]);
+            }
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.println("evaluate(): " + elapsedTime/(repetitions*positionCount) + " ns and "
+                + allocated/(repetitions*positionCount) + " bytes allocated per position (checksum " + sum + ")");
+    }
+
+    /***
+     * Evaluates a board position by multiplying the weight matrices as given by the getters, with the activation applied on the bias nodes too
+     */
+    private static float referenceEvaluate(NeuralNetEvaluator neuralNetEvaluator, CheckersBoard checkersBoard){
+        float[] input = new float[NeuralNetEvaluator.getInputNodes()+1];
+        input[0] = 1;
+        for (int square = 0; square < NeuralNetEvaluator.getInputNodes(); square++) {
+            int bit = 1 << square;
+            float value = (checkersBoard.getKings() & bit) != 0 ? neuralNetEvaluator.getKingValue() : 1;
+            if((checkersBoard.getWhitePieces() & bit) != 0)
+                input[square+1] = value;
+            else if((checkersBoard.getBlackPieces() & bit) != 0)
+                input[square+1] = -value;
+        }
+        float[] hidden1 = layer(input, neuralNetEvaluator.getWeightInputToHidden1());
+        float[] hidden2 = layer(hidden1, neuralNetEvaluator.getWeightHidden1ToHidden2());
+        float sum = 0;
+        for (int i = 0; i < hidden2.length; i++) {
+            sum += hidden2[i]*neuralNetEvaluator.getWeightHidden2ToOutput()[i];
+        }
+        return (float) Math.tanh(sum);
+    }
+
+    private static float[] layer(float[] input, float[][] weights){
+        float[] output = new float[weights[0].length+1];
+        output[0] = (float) Math.tanh(1);
+        for (int i = 0; i < weights[0].length; i++) {
+            float sum = 0;
+            for (int j = 0; j < input.length; j++) {
+                sum += input[j]*weights[j][i];
+            }
+            output[i+1] = (float) Math.tanh(sum);
+        }
+        return output;
+    }
+
+    private static CheckersBoard[] randomPositions(Random random){
+        CheckersBoard[] checkersBoards = new CheckersBoard[positionCount];
+        MoveBuffer legalMoves = new MoveBuffer();
+        CheckersBoard checkersBoard = null;
+        for (int i = 0; i < positionCount; i++) {
+            legalMoves.clear();
+            if(checkersBoard != null)
+                checkersBoard.generateMoves(legalMoves);
+            if(legalMoves.size() == 0 || checkersBoard.getPlyCount() >= 200){
+                checkersBoard = new CheckersBoard();
+                checkersBoard.setInitialBoardPosition();
+            }else{
+                checkersBoard.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+            }
+            checkersBoards[i] = checkersBoard.clone();
+        }
+        return checkersBoards;
+    }
+}
@@ -0,0 +1,27 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Players.MCTSPlayer;
+
+/***
+ * Times a search of the initial position by MCTSPlayers with 1, 2, 4 and so on workers upto the number of available processors,
+ * the iterations per second should grow close to linearly with the number of workers
+ */
+public class TestParallelMCTS {
+    private static final int iterations = 5000;
+
+    public static void main(String[] args) {
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threadCount = 1; threadCount <= processors; threadCount *= 2) {
+            MCTSPlayer mctsPlayer = new MCTSPlayer(iterations, threadCount);
+            mctsPlayer.bestMove(checkersBoard);     //Warm up
+            long startTime = System.nanoTime();
+            mctsPlayer.bestMove(checkersBoard);
+            long elapsedTime = System.nanoTime() - startTime;
+            System.out.println(threadCount + " workers: " + iterations + " iterations in " + elapsedTime/1000000 + " ms ("
+                    + (long) (iterations/(elapsedTime/1e9)) + " iterations/s)");
+        }
+    }
+}
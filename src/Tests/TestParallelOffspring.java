@@ -0,0 +1,59 @@
+package Tests;
+
+import GeneticAlgorithm.GeneticAlgorithm;
+import GeneticAlgorithm.Individual;
+import Players.Evaluator.NeuralNetEvaluator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/***
+ * Creates the offspring of a population of individuals with large hidden layers in parallel twice from the same seed and once
+ * one by one from the same split generators, checking that all three give the same neural networks, and prints the time taken
+ */
+public class TestParallelOffspring {
+    private static final int individualCount = 30;
+    private static final int nodeCountHiddenLayer1 = 256;
+    private static final int nodeCountHiddenLayer2 = 128;
+    private static final long seed = 7;
+
+    public static void main(String[] args) {
+        List<Individual> parents = new ArrayList<>();
+        for (int i = 0; i < individualCount; i++) {
+            parents.add(new Individual(1, nodeCountHiddenLayer1, nodeCountHiddenLayer2));
+        }
+        for (int repetition = 0; repetition < 3; repetition++) {
+            long startTime = System.nanoTime();
+            Individual[] parallelOffspring = GeneticAlgorithm.createOffspring(parents, new SplittableRandom(seed));
+            long parallelTime = System.nanoTime() - startTime;
+            Individual[] secondParallelOffspring = GeneticAlgorithm.createOffspring(parents, new SplittableRandom(seed));
+
+            startTime = System.nanoTime();
+            SplittableRandom random = new SplittableRandom(seed);
+            Individual[] serialOffspring = new Individual[individualCount];
+            for (int i = 0; i < individualCount; i++) {
+                serialOffspring[i] = new Individual(parents.get(i), false, random.split());
+            }
+            long serialTime = System.nanoTime() - startTime;
+
+            boolean isSame = true;
+            for (int i = 0; i < individualCount; i++) {
+                isSame &= isSameNetwork(parallelOffspring[i], secondParallelOffspring[i]) && isSameNetwork(parallelOffspring[i], serialOffspring[i]);
+            }
+            System.out.println("Offspring of " + individualCount + " individuals: " + parallelTime/1000000 + " ms in parallel on "
+                    + Runtime.getRuntime().availableProcessors() + " processors, " + serialTime/1000000 + " ms one by one, same networks: " + (isSame ? "OK" : "FAILED"));
+        }
+    }
+
+    private static boolean isSameNetwork(Individual individual, Individual other){
+        NeuralNetEvaluator evaluator = (NeuralNetEvaluator) individual.getPlayer().getEvaluator();
+        NeuralNetEvaluator otherEvaluator = (NeuralNetEvaluator) other.getPlayer().getEvaluator();
+        return evaluator.getKingValue() == otherEvaluator.getKingValue()
+                && Arrays.deepEquals(evaluator.getWeightInputToHidden1(), otherEvaluator.getWeightInputToHidden1())
+                && Arrays.deepEquals(evaluator.getWeightHidden1ToHidden2(), otherEvaluator.getWeightHidden1ToHidden2())
+                && Arrays.equals(evaluator.getWeightHidden2ToOutput(), otherEvaluator.getWeightHidden2ToOutput())
+                && Arrays.deepEquals(evaluator.getSelfAdaptiveParameterForWeightHidden1ToHidden2(), otherEvaluator.getSelfAdaptiveParameterForWeightHidden1ToHidden2());
+    }
+}
@@ -0,0 +1,48 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.Move;
+import Players.AlphaBetaPlayer;
+import Players.Evaluator.StaticEvaluator;
+
+/***
+ * Searches the positions of a game with a single threaded and a parallel deterministic AlphaBetaPlayer,
+ * checks that both find the same moves and prints the time taken by each of them
+ */
+public class TestParallelSearch {
+    private static final int depth = 9;
+    private static final int positionCount = 30;
+
+    public static void main(String[] args) {
+        int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        AlphaBetaPlayer singleThreadedPlayer = new AlphaBetaPlayer(depth, new StaticEvaluator());
+        singleThreadedPlayer.setDeterministic(true);
+        AlphaBetaPlayer parallelPlayer = new AlphaBetaPlayer(depth, new StaticEvaluator());
+        parallelPlayer.setDeterministic(true);
+        parallelPlayer.setThreadCount(threadCount);
+        AlphaBetaPlayer gamePlayer = new AlphaBetaPlayer(2, new StaticEvaluator(), 0);
+
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        long singleThreadedTime = 0, parallelTime = 0;
+        int sameMoves = 0, positions = 0;
+        for (; positions < positionCount; positions++) {
+            long startTime = System.nanoTime();
+            Move singleThreadedMove = singleThreadedPlayer.bestMove(checkersBoard);
+            singleThreadedTime += System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            Move parallelMove = parallelPlayer.bestMove(checkersBoard);
+            parallelTime += System.nanoTime() - startTime;
+            if(singleThreadedMove == null || parallelMove == null)
+                break;
+            if(checkersBoard.toPackedMove(singleThreadedMove) == checkersBoard.toPackedMove(parallelMove))
+                sameMoves++;
+            else
+                System.out.println("Different move in position " + positions);
+            checkersBoard.makeMove(gamePlayer.bestMove(checkersBoard));
+        }
+        System.out.println("Positions searched to depth " + depth + ": " + positions + ", same move: " + sameMoves);
+        System.out.println("Time with 1 thread: " + singleThreadedTime/1000000 + " ms");
+        System.out.println("Time with " + threadCount + " threads: " + parallelTime/1000000 + " ms");
+    }
+}
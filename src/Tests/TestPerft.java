@@ -0,0 +1,41 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.Move;
+
+import java.util.List;
+
+/***
+ * Counts the leaf nodes of the move generation tree from the initial position up to a given depth (perft)
+ * and compares them with the known values for checkers, the speed of the move generation is printed as well
+ */
+public class TestPerft {
+    private static final long[] expectedNodes = {1, 7, 49, 302, 1469, 7361, 36768, 179740, 845931, 3963680};
+
+    public static void main(String[] args) {
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        for (int depth = 1; depth < expectedNodes.length; depth++) {
+            long startTime = System.nanoTime();
+            long nodes = perft(checkersBoard, depth);
+            long elapsedTime = System.nanoTime() - startTime;
+            System.out.println("Depth " + depth + ": " + nodes + " nodes (expected " + expectedNodes[depth] + ") "
+                    + (nodes == expectedNodes[depth] ? "OK" : "MISMATCH") + " in " + elapsedTime/1000000 + " ms");
+        }
+    }
+
+    private static long perft(CheckersBoard checkersBoard, int depth){
+        if(depth == 0)
+            return 1;
+        List<Move> legalMoves = checkersBoard.getAllMoves();
+        if(depth == 1)
+            return legalMoves.size();
+        long nodes = 0;
+        for(Move move: legalMoves){
+            checkersBoard.makeMove(move);
+            nodes += perft(checkersBoard, depth-1);
+            checkersBoard.unmakeMove();
+        }
+        return nodes;
+    }
+}
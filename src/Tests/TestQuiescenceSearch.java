@@ -0,0 +1,58 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.Game;
+import Checkers.GameResult;
+import Checkers.MoveBuffer;
+import Players.AlphaBetaPlayer;
+import Players.Evaluator.StaticEvaluator;
+
+import java.util.Random;
+
+/***
+ * Plays games between an AlphaBetaPlayer with the quiescence search and one without it at the same depth,
+ * starting from positions after a few random opening moves, each position being played with both alliances.
+ * The results are printed from the perspective of the player with the quiescence search.
+ */
+public class TestQuiescenceSearch {
+    private static final int depth = 4;
+    private static final int openingCount = 10;
+    private static final int randomOpeningMoves = 4;
+
+    public static void main(String[] args) {
+        AlphaBetaPlayer quiescencePlayer = new AlphaBetaPlayer(depth, new StaticEvaluator());
+        AlphaBetaPlayer plainPlayer = new AlphaBetaPlayer(depth, new StaticEvaluator());
+        plainPlayer.setQuiescenceDepth(0);
+
+        Random random = new Random(1);
+        int won = 0, lost = 0, drawn = 0;
+        for (int i = 0; i < openingCount; i++) {
+            CheckersBoard opening = randomOpening(random);
+            for (int j = 0; j < 2; j++) {
+                boolean isQuiescencePlayerWhite = j == 0;
+                Game game = isQuiescencePlayerWhite ? new Game(quiescencePlayer, plainPlayer, opening.clone())
+                        : new Game(plainPlayer, quiescencePlayer, opening.clone());
+                GameResult gameResult = game.start();
+                if(gameResult == GameResult.DRAWN)
+                    drawn++;
+                else if((gameResult == GameResult.WON) == isQuiescencePlayerWhite)
+                    won++;
+                else
+                    lost++;
+            }
+        }
+        System.out.println("Depth " + depth + " with quiescence search against without: Won " + won + " Lost " + lost + " Drawn " + drawn);
+    }
+
+    private static CheckersBoard randomOpening(Random random){
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        MoveBuffer legalMoves = new MoveBuffer();
+        for (int i = 0; i < randomOpeningMoves; i++) {
+            legalMoves.clear();
+            checkersBoard.generateMoves(legalMoves);
+            checkersBoard.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+        }
+        return checkersBoard;
+    }
+}
@@ -0,0 +1,44 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Players.RolloutEngine;
+
+import java.util.SplittableRandom;
+
+/***
+ * Plays random games from the initial position with an unbiased and a biased RolloutEngine, checks that the board position
+ * is the same after each game and prints the results, the average game length and the games played per second
+ */
+public class TestRolloutEngine {
+    private static final int gameCount = 100000;
+
+    public static void main(String[] args) {
+        test(false);
+        test(true);
+    }
+
+    private static void test(boolean isBiased){
+        RolloutEngine rolloutEngine = new RolloutEngine(new SplittableRandom(1), isBiased);
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        long zobristKey = checkersBoard.getZobristKey();
+        int whiteWins = 0, blackWins = 0, draws = 0;
+        long plies = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < gameCount; i++) {
+            int value = rolloutEngine.play(checkersBoard);
+            if(value > 0)
+                whiteWins++;
+            else if(value < 0)
+                blackWins++;
+            else
+                draws++;
+            plies += rolloutEngine.getLastGameLength();
+            if(checkersBoard.getZobristKey() != zobristKey || checkersBoard.getPlyCount() != 0)
+                System.out.println("Board position changed by game " + i);
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+        System.out.println((isBiased ? "Biased" : "Unbiased") + ": White " + whiteWins + " Black " + blackWins + " Drawn " + draws
+                + ", average length " + (double) plies/gameCount + ", " + (long) (gameCount/(elapsedTime/1e9)) + " games/s");
+    }
+}
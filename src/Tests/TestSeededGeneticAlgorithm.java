@@ -0,0 +1,59 @@
+package Tests;
+
+import GeneticAlgorithm.GeneticAlgorithm;
+import GeneticAlgorithm.GeneticAlgorithmPlayingNeuralNet;
+import GeneticAlgorithm.GeneticAlgorithmPlayingRandomPlayer;
+import GeneticAlgorithm.Individual;
+import GeneticAlgorithm.TournamentScheduler;
+import Players.Evaluator.NeuralNetEvaluator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/***
+ * Runs small genetic algorithms twice from the same seed, once with the games played one at a time and once on a TournamentScheduler
+ * with several threads, and checks that both runs end with the same population, with the same neural networks and the same records
+ */
+public class TestSeededGeneticAlgorithm {
+    private static final int individualCount = 4;
+    private static final int generationCount = 2;
+    private static final int depth = 2;
+    private static final int matchesPerTournament = 2;
+    private static final int threadCount = 4;
+    private static final long seed = 25;
+
+    public static void main(String[] args) {
+        GeneticAlgorithm sequentialNeuralNet = new GeneticAlgorithmPlayingNeuralNet(individualCount, generationCount, depth, 20, 5, matchesPerTournament, seed);
+        GeneticAlgorithm parallelNeuralNet = new GeneticAlgorithmPlayingNeuralNet(individualCount, generationCount, depth, 20, 5, matchesPerTournament, seed);
+        System.out.println("Against each other: " + (isSameRun(sequentialNeuralNet, parallelNeuralNet) ? "OK" : "FAILED"));
+
+        GeneticAlgorithm sequentialRandomPlayer = new GeneticAlgorithmPlayingRandomPlayer(individualCount, generationCount, depth, 20, 5, matchesPerTournament, seed);
+        GeneticAlgorithm parallelRandomPlayer = new GeneticAlgorithmPlayingRandomPlayer(individualCount, generationCount, depth, 20, 5, matchesPerTournament, seed);
+        System.out.println("Against RandomPlayer: " + (isSameRun(sequentialRandomPlayer, parallelRandomPlayer) ? "OK" : "FAILED"));
+    }
+
+    private static boolean isSameRun(GeneticAlgorithm sequential, GeneticAlgorithm parallel){
+        sequential.setTournamentScheduler(new TournamentScheduler(1));
+        parallel.setTournamentScheduler(new TournamentScheduler(threadCount));
+        sequential.start();
+        parallel.start();
+
+        List<Individual> sequentialPopulation = sequential.getPopulation();
+        List<Individual> parallelPopulation = parallel.getPopulation();
+        boolean isSame = sequentialPopulation.size() == parallelPopulation.size();
+        for (int i = 0; isSame && i < sequentialPopulation.size(); i++) {
+            isSame = isSameNetwork(sequentialPopulation.get(i), parallelPopulation.get(i))
+                    && sequentialPopulation.get(i).toString().equals(parallelPopulation.get(i).toString());
+        }
+        return isSame;
+    }
+
+    private static boolean isSameNetwork(Individual individual, Individual other){
+        NeuralNetEvaluator evaluator = (NeuralNetEvaluator) individual.getPlayer().getEvaluator();
+        NeuralNetEvaluator otherEvaluator = (NeuralNetEvaluator) other.getPlayer().getEvaluator();
+        return evaluator.getKingValue() == otherEvaluator.getKingValue()
+                && Arrays.deepEquals(evaluator.getWeightInputToHidden1(), otherEvaluator.getWeightInputToHidden1())
+                && Arrays.deepEquals(evaluator.getWeightHidden1ToHidden2(), otherEvaluator.getWeightHidden1ToHidden2())
+                && Arrays.equals(evaluator.getWeightHidden2ToOutput(), otherEvaluator.getWeightHidden2ToOutput());
+    }
+}
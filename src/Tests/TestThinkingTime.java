@@ -0,0 +1,33 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.Game;
+import Checkers.GameResult;
+import Players.AlphaBetaPlayer;
+import Players.Evaluator.StaticEvaluator;
+
+/***
+ * Checks that a timed AlphaBetaPlayer keeps to its thinking time, by timing its searches of the initial position
+ * for a few thinking times and a game against a fixed depth AlphaBetaPlayer
+ */
+public class TestThinkingTime {
+    private static final long[] thinkingTimes = {10, 50, 200, 1000};
+
+    public static void main(String[] args) {
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        for(long thinkingTime: thinkingTimes){
+            AlphaBetaPlayer alphaBetaPlayer = new AlphaBetaPlayer(64, new StaticEvaluator(), AlphaBetaPlayer.defaultTranspositionTableSize, thinkingTime);
+            long startTime = System.nanoTime();
+            alphaBetaPlayer.bestMove(checkersBoard);
+            System.out.println("Thinking time " + thinkingTime + " ms: searched for " + (System.nanoTime() - startTime)/1000000 + " ms");
+        }
+
+        AlphaBetaPlayer timedPlayer = new AlphaBetaPlayer(64, new StaticEvaluator(), AlphaBetaPlayer.defaultTranspositionTableSize, 20);
+        AlphaBetaPlayer fixedDepthPlayer = new AlphaBetaPlayer(6, new StaticEvaluator());
+        Game game = new Game(timedPlayer, fixedDepthPlayer);
+        long startTime = System.nanoTime();
+        GameResult gameResult = game.start();
+        System.out.println("Timed player with 20 ms against depth 6: " + gameResult + " in " + (System.nanoTime() - startTime)/1000000 + " ms");
+    }
+}
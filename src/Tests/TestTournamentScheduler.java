@@ -0,0 +1,39 @@
+package Tests;
+
+import GeneticAlgorithm.Individual;
+import GeneticAlgorithm.PairingStrategy;
+import GeneticAlgorithm.TournamentScheduler;
+import GeneticAlgorithm.TournamentStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/***
+ * Plays a tournament between a small population of individuals with each PairingStrategy on a TournamentScheduler,
+ * printing the counters of the scheduler and the number of games each individual played, which is the same for all of them
+ * except with RANDOM, where each individual plays matchesPerTournament games as White and a random number as Black
+ */
+public class TestTournamentScheduler {
+    private static final int individualCount = 8;
+    private static final int matchesPerTournament = 3;
+    private static final int depth = 2;
+
+    public static void main(String[] args) {
+        TournamentScheduler tournamentScheduler = new TournamentScheduler();
+        System.out.println("Threads: " + tournamentScheduler.getThreadCount() + " Maximum queued games: " + tournamentScheduler.getMaximumQueuedGames());
+        for(PairingStrategy pairingStrategy: PairingStrategy.values()){
+            List<Individual> population = new ArrayList<>();
+            for (int i = 0; i < individualCount; i++) {
+                population.add(new Individual(depth, 40, 10));
+            }
+            TournamentStatistics tournamentStatistics = tournamentScheduler.playTournament(population, pairingStrategy, matchesPerTournament, new Random(1));
+            System.out.println(pairingStrategy + ": " + tournamentStatistics);
+            StringBuilder matchesPlayed = new StringBuilder();
+            for(Individual individual: population)
+                matchesPlayed.append(individual.getRoundMatchesPlayed()).append(' ');
+            System.out.println(pairingStrategy + " matches played by each individual: " + matchesPlayed);
+        }
+        System.out.println("Games played: " + tournamentScheduler.getGamesPlayed() + " Queue depth: " + tournamentScheduler.getQueueDepth());
+    }
+}
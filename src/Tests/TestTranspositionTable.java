@@ -0,0 +1,48 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.Move;
+import Players.AlphaBetaPlayer;
+import Players.Evaluator.StaticEvaluator;
+import Players.TranspositionTable;
+
+/***
+ * Searches the positions of a game with and without a TranspositionTable and compares the time taken and the moves found,
+ * the hit rate of the table is printed at the end
+ */
+public class TestTranspositionTable {
+    private static final int depth = 8;
+    private static final int positionCount = 30;
+
+    public static void main(String[] args) {
+        AlphaBetaPlayer playerWithoutTable = new AlphaBetaPlayer(depth, new StaticEvaluator(), 0);
+        AlphaBetaPlayer playerWithTable = new AlphaBetaPlayer(depth, new StaticEvaluator());
+        AlphaBetaPlayer gamePlayer = new AlphaBetaPlayer(2, new StaticEvaluator(), 0);
+
+        CheckersBoard checkersBoard = new CheckersBoard();
+        checkersBoard.setInitialBoardPosition();
+        long timeWithoutTable = 0, timeWithTable = 0;
+        int sameMoves = 0, positions = 0;
+        for (; positions < positionCount; positions++) {
+            long startTime = System.nanoTime();
+            Move moveWithoutTable = playerWithoutTable.bestMove(checkersBoard);
+            timeWithoutTable += System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            Move moveWithTable = playerWithTable.bestMove(checkersBoard);
+            timeWithTable += System.nanoTime() - startTime;
+            if(moveWithoutTable == null || moveWithTable == null)
+                break;
+            if(checkersBoard.toPackedMove(moveWithoutTable) == checkersBoard.toPackedMove(moveWithTable))
+                sameMoves++;
+            //Continue the game with a quick player so that the positions differ from the ones searched
+            checkersBoard.makeMove(gamePlayer.bestMove(checkersBoard));
+        }
+
+        TranspositionTable transpositionTable = playerWithTable.getTranspositionTable();
+        System.out.println("Positions searched to depth " + depth + ": " + positions);
+        System.out.println("Same move with and without the table: " + sameMoves);
+        System.out.println("Time without the table: " + timeWithoutTable/1000000 + " ms");
+        System.out.println("Time with the table: " + timeWithTable/1000000 + " ms");
+        System.out.println(transpositionTable);
+    }
+}
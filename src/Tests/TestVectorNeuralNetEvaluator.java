@@ -0,0 +1,89 @@
+package Tests;
+
+import Checkers.CheckersBoard;
+import Checkers.MoveBuffer;
+import Players.Evaluator.Evaluator;
+import Players.Evaluator.NeuralNetEvaluator;
+import Players.Evaluator.VectorNeuralNetEvaluator;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Random;
+
+/***
+ * Checks the VectorNeuralNetEvaluator of the saved best NeuralNetEvaluator and of a larger random neural network against the scalar
+ * evaluate() of the NeuralNetEvaluator on random positions, with and without an Accumulator set on the boards, printing the largest
+ * difference against the documented tolerance and the time of an evaluation of each
+ * It must be run with --add-modules jdk.incubator.vector for the Vector API to be used, otherwise both evaluations are scalar
+ */
+public class TestVectorNeuralNetEvaluator {
+    private static final int positionCount = 4096;
+    private static final int repetitions = 100;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        System.out.println("Vector API available: " + VectorNeuralNetEvaluator.isVectorApiAvailable()
+                + " (" + VectorNeuralNetEvaluator.getLaneCount() + " float lanes)");
+        NeuralNetEvaluator neuralNetEvaluator;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream("./src/Data/bestNNEvaluator.dat"))) {
+            objectInputStream.readInt();
+            neuralNetEvaluator = (NeuralNetEvaluator) objectInputStream.readObject();
+        }
+        CheckersBoard[] checkersBoards = randomPositions(new Random(1));
+        compare("Saved best network", neuralNetEvaluator, checkersBoards);
+        compare("Network of 128 and 64 hidden nodes", new NeuralNetEvaluator(128, 64), checkersBoards);
+    }
+
+    private static void compare(String name, NeuralNetEvaluator neuralNetEvaluator, CheckersBoard[] checkersBoards){
+        VectorNeuralNetEvaluator vectorNeuralNetEvaluator = new VectorNeuralNetEvaluator(neuralNetEvaluator);
+        double largestDifference = 0;
+        for(CheckersBoard checkersBoard: checkersBoards){
+            float expected = neuralNetEvaluator.evaluate(checkersBoard);
+            largestDifference = Math.max(largestDifference, Math.abs(vectorNeuralNetEvaluator.evaluate(checkersBoard) - expected));
+            //The sums of the Accumulator are used by both evaluations when it is set on the board
+            CheckersBoard accumulatedBoard = checkersBoard.clone();
+            accumulatedBoard.setBoardListener(vectorNeuralNetEvaluator.createBoardListener());
+            float accumulatedExpected = neuralNetEvaluator.evaluate(accumulatedBoard);
+            largestDifference = Math.max(largestDifference, Math.abs(vectorNeuralNetEvaluator.evaluate(accumulatedBoard) - accumulatedExpected));
+        }
+        System.out.println(name + ": largest difference " + largestDifference + " (tolerance " + VectorNeuralNetEvaluator.tolerance + ") "
+                + (largestDifference <= VectorNeuralNetEvaluator.tolerance ? "OK" : "FAILED"));
+        for (int i = 0; i < 3; i++) {
+            long scalarTime = timeEvaluations(neuralNetEvaluator, checkersBoards);
+            long vectorTime = timeEvaluations(vectorNeuralNetEvaluator, checkersBoards);
+            System.out.println(name + ": " + scalarTime + " ns scalar, " + vectorTime + " ns vector per position");
+        }
+    }
+
+    private static long timeEvaluations(Evaluator evaluator, CheckersBoard[] checkersBoards){
+        float sum = 0;
+        long startTime = System.nanoTime();
+        for (int repetition = 0; repetition < repetitions; repetition++) {
+            for(CheckersBoard checkersBoard: checkersBoards)
+                sum += evaluator.evaluate(checkersBoard);
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+        if(Float.isNaN(sum))
+            System.out.println("NaN evaluation");
+        return elapsedTime/((long) repetitions*checkersBoards.length);
+    }
+
+    private static CheckersBoard[] randomPositions(Random random){
+        CheckersBoard[] checkersBoards = new CheckersBoard[positionCount];
+        MoveBuffer legalMoves = new MoveBuffer();
+        CheckersBoard checkersBoard = null;
+        for (int i = 0; i < positionCount; i++) {
+            legalMoves.clear();
+            if(checkersBoard != null)
+                checkersBoard.generateMoves(legalMoves);
+            if(legalMoves.size() == 0 || checkersBoard.getPlyCount() >= 200){
+                checkersBoard = new CheckersBoard();
+                checkersBoard.setInitialBoardPosition();
+            }else{
+                checkersBoard.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+            }
+            checkersBoards[i] = checkersBoard.clone();
+        }
+        return checkersBoards;
+    }
+}